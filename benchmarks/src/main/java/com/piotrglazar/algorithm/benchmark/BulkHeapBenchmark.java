@@ -0,0 +1,113 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.piotrglazar.algorithm.Heaps;
+import com.piotrglazar.algorithm.MaxHeap;
+
+/**
+ * Operations over the whole heap: building, sorting and retaining, compared with {@link PriorityQueue}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BulkHeapBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	private int size;
+
+	@Param({ "UNIFORM", "ASCENDING", "FEW_DISTINCT" })
+	private KeyDistribution distribution;
+
+	@Param({ "CHEAP", "EXPENSIVE" })
+	private ComparatorCost comparatorCost;
+
+	private Comparator<Item> comparator;
+
+	private List<Item> items;
+
+	private Set<Item> retained;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		comparator = comparatorCost.comparator();
+		items = Arrays.asList(distribution.items(size, 42));
+		retained = new HashSet<>(items.subList(0, size / 2));
+	}
+
+	@Benchmark
+	public MaxHeap<Item> maxHeapBuildHeap() {
+		return MaxHeap.buildHeap(items, comparator);
+	}
+
+	@Benchmark
+	public PriorityQueue<Item> priorityQueueFromCollection() {
+		PriorityQueue<Item> priorityQueue = new PriorityQueue<>(size, comparator.reversed());
+		priorityQueue.addAll(items);
+		return priorityQueue;
+	}
+
+	@Benchmark
+	public List<Item> heapsHeapSort() {
+		return Heaps.heapSort(items, comparator);
+	}
+
+	@Benchmark
+	public List<Item> priorityQueueDrain() {
+		PriorityQueue<Item> priorityQueue = new PriorityQueue<>(items.size(), comparator.reversed());
+		priorityQueue.addAll(items);
+		List<Item> sorted = new ArrayList<>(items.size());
+		while (!priorityQueue.isEmpty())
+			sorted.add(priorityQueue.poll());
+		return sorted;
+	}
+
+	@Benchmark
+	public List<Item> collectionsSort() {
+		List<Item> sorted = new ArrayList<>(items);
+		Collections.sort(sorted, comparator.reversed());
+		return sorted;
+	}
+
+	/**
+	 * Includes building the heap, which can be subtracted using {@link #maxHeapBuildHeap()}.
+	 */
+	@Benchmark
+	public MaxHeap<Item> maxHeapRetainAll() {
+		MaxHeap<Item> heap = MaxHeap.buildHeap(items, comparator);
+		heap.retainAll(retained);
+		return heap;
+	}
+
+	@Benchmark
+	public PriorityQueue<Item> priorityQueueRetainAll() {
+		PriorityQueue<Item> priorityQueue = new PriorityQueue<>(size, comparator.reversed());
+		priorityQueue.addAll(items);
+		priorityQueue.retainAll(retained);
+		return priorityQueue;
+	}
+}
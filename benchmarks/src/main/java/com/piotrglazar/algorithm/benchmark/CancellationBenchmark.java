@@ -0,0 +1,67 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.piotrglazar.algorithm.MaxHeap;
+
+/**
+ * Cancellation-heavy workload on {@link MaxHeap}: every operation removes a random present item, adds a new one and
+ * peeks at the maximum, so the heap size stays constant. A tombstone fraction of 0 means eager removal, other values
+ * enable lazy deletion with that compaction threshold.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CancellationBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	private int size;
+
+	@Param({ "0", "0.25", "0.5" })
+	private double tombstoneFraction;
+
+	private Item[] items;
+
+	private MaxHeap<Item> heap;
+
+	private Random random;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		random = new Random(42);
+		items = new Item[size];
+		for (int i = 0; i < size; ++i)
+			items[i] = new Item(random.nextLong());
+		heap = MaxHeap.buildHeap(Arrays.asList(items), (first, second) -> Long.compare(first.getKey(),
+				second.getKey()));
+		if (tombstoneFraction > 0)
+			heap.enableLazyDeletion(tombstoneFraction);
+	}
+
+	@Benchmark
+	public Item cancelAndAdd() {
+		int i = random.nextInt(size);
+		heap.remove(items[i]);
+		items[i] = new Item(random.nextLong());
+		heap.add(items[i]);
+		return heap.peek();
+	}
+}
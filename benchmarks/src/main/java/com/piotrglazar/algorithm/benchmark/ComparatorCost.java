@@ -0,0 +1,32 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.Comparator;
+
+public enum ComparatorCost {
+
+	CHEAP {
+		@Override
+		public Comparator<Item> comparator() {
+			return (first, second) -> Long.compare(first.getKey(), second.getKey());
+		}
+	},
+
+	/**
+	 * Orders items the same way as {@link #CHEAP}, but goes through an array and up to four comparisons.
+	 */
+	EXPENSIVE {
+		@Override
+		public Comparator<Item> comparator() {
+			return (first, second) -> {
+				for (int i = 0; i < 4; ++i) {
+					int result = Long.compare(first.field(i), second.field(i));
+					if (result != 0)
+						return result;
+				}
+				return 0;
+			};
+		}
+	};
+
+	public abstract Comparator<Item> comparator();
+}
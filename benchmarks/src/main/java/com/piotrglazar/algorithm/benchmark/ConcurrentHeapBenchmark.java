@@ -0,0 +1,99 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import com.piotrglazar.algorithm.ConcurrentMaxHeap;
+import com.piotrglazar.algorithm.Heap;
+import com.piotrglazar.algorithm.MaxHeap;
+import com.piotrglazar.algorithm.MultiQueue;
+
+/**
+ * Throughput of offer/poll pairs and of key changes from many threads. Run with different thread counts to see
+ * scaling, e.g. {@code java -jar target/benchmarks.jar ConcurrentHeapBenchmark -t 1,2,4,8,16}. Each thread changes
+ * keys of its own share of items; PriorityBlockingQueue has no changeKey, so it removes and re-adds the item.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentHeapBenchmark {
+
+	public enum Implementation {
+		GLOBAL_LOCK_MAX_HEAP, CONCURRENT_MAX_HEAP, MULTI_QUEUE, PRIORITY_BLOCKING_QUEUE
+	}
+
+	@Param({ "GLOBAL_LOCK_MAX_HEAP", "CONCURRENT_MAX_HEAP", "MULTI_QUEUE", "PRIORITY_BLOCKING_QUEUE" })
+	private Implementation implementation;
+
+	@Param({ "100000" })
+	private int size;
+
+	private Queue<Item> queue;
+
+	private Item[] items;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		Comparator<Item> comparator = ComparatorCost.CHEAP.comparator();
+		switch (implementation) {
+		case GLOBAL_LOCK_MAX_HEAP:
+			queue = new GlobalLockQueue<>(new MaxHeap<>(comparator));
+			break;
+		case CONCURRENT_MAX_HEAP:
+			queue = new ConcurrentMaxHeap<>(2 * size, comparator);
+			break;
+		case MULTI_QUEUE:
+			queue = new MultiQueue<>(comparator);
+			break;
+		case PRIORITY_BLOCKING_QUEUE:
+			queue = new PriorityBlockingQueue<>(2 * size, comparator.reversed());
+			break;
+		}
+		items = KeyDistribution.UNIFORM.items(size, 42);
+		for (Item item : items)
+			queue.offer(item);
+	}
+
+	@Benchmark
+	public Item offerPoll() {
+		queue.offer(new Item(ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE)));
+		return queue.poll();
+	}
+
+	@Benchmark
+	@SuppressWarnings("unchecked")
+	public Item changeKey(ThreadParams threads) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int share = size / threads.getThreadCount();
+		Item item = items[threads.getThreadIndex() + threads.getThreadCount() * random.nextInt(share)];
+		if (queue instanceof Heap) {
+			item.setKey(random.nextInt(Integer.MAX_VALUE));
+			((Heap<Item>) queue).changeKey(item);
+		} else {
+			queue.remove(item);
+			item.setKey(random.nextInt(Integer.MAX_VALUE));
+			queue.offer(item);
+		}
+		return item;
+	}
+}
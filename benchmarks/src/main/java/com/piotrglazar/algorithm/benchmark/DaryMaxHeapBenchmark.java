@@ -0,0 +1,87 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.piotrglazar.algorithm.DaryMaxHeap;
+
+/**
+ * Looks for the best arity of {@link DaryMaxHeap}: wider nodes make sift-up shorter, but sift-down compares more
+ * sons per level. Arity 2 is the binary layout of MaxHeap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DaryMaxHeapBenchmark {
+
+	@Param({ "2", "4", "8", "16" })
+	private int arity;
+
+	@Param({ "100000", "10000000" })
+	private int size;
+
+	@Param({ "CHEAP", "EXPENSIVE" })
+	private ComparatorCost comparatorCost;
+
+	private Item[] items;
+
+	private long[] keys;
+
+	private int next;
+
+	private Item spare;
+
+	private DaryMaxHeap<Item> heap;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		Comparator<Item> comparator = comparatorCost.comparator();
+		items = KeyDistribution.UNIFORM.items(size, 42);
+		Item[] keySource = KeyDistribution.UNIFORM.items(1 << 16, 43);
+		keys = new long[keySource.length];
+		for (int i = 0; i < keys.length; ++i)
+			keys[i] = keySource[i].getKey();
+		List<Item> itemList = Arrays.asList(items);
+		heap = DaryMaxHeap.buildHeap(arity, itemList, comparator);
+		spare = new Item(0);
+		next = 0;
+	}
+
+	@Benchmark
+	public Item offerPoll() {
+		spare.setKey(nextKey());
+		heap.offer(spare);
+		spare = heap.poll();
+		return spare;
+	}
+
+	@Benchmark
+	public Item changeKey() {
+		Item item = items[next % items.length];
+		item.setKey(nextKey());
+		heap.changeKey(item);
+		return item;
+	}
+
+	private long nextKey() {
+		return keys[next++ & (keys.length - 1)];
+	}
+}
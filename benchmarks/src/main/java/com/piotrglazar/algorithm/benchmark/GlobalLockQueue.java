@@ -0,0 +1,48 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+
+import com.piotrglazar.algorithm.Heap;
+
+/**
+ * Baseline: a non thread-safe heap behind one lock.
+ */
+final class GlobalLockQueue<E> extends AbstractQueue<E> implements Heap<E> {
+
+	private final Heap<E> queue;
+
+	GlobalLockQueue(Heap<E> queue) {
+		this.queue = queue;
+	}
+
+	@Override
+	public synchronized boolean offer(E e) {
+		return queue.offer(e);
+	}
+
+	@Override
+	public synchronized E poll() {
+		return queue.poll();
+	}
+
+	@Override
+	public synchronized E peek() {
+		return queue.peek();
+	}
+
+	@Override
+	public synchronized void changeKey(E e) {
+		queue.changeKey(e);
+	}
+
+	@Override
+	public synchronized int size() {
+		return queue.size();
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,115 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.piotrglazar.algorithm.graph.CsrGraph;
+import com.piotrglazar.algorithm.graph.ShortestPaths;
+import com.piotrglazar.algorithm.graph.SpanningForest;
+
+/**
+ * Graph algorithms on an undirected side x side grid (side^2 vertices, about 4 side^2 directed edges in
+ * {@link CsrGraph}) with integer weights in [1, maxWeight]: {@link ShortestPaths#dijkstra}, compared with the common
+ * re-inserting Dijkstra over java.util.PriorityQueue which skips stale entries, {@link ShortestPaths#aStar} between
+ * opposite corners with the Manhattan distance heuristic, and {@link SpanningForest#prim}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class GraphBenchmark {
+
+	@Param({ "1000", "2000" })
+	private int side;
+
+	@Param({ "100" })
+	private int maxWeight;
+
+	private CsrGraph graph;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		int edges = 2 * side * (side - 1);
+		int[] sources = new int[edges];
+		int[] targets = new int[edges];
+		int[] weights = new int[edges];
+		int e = 0;
+		for (int y = 0; y < side; ++y) {
+			for (int x = 0; x < side; ++x) {
+				int v = y * side + x;
+				if (x + 1 < side) {
+					sources[e] = v;
+					targets[e] = v + 1;
+					weights[e++] = 1 + random.nextInt(maxWeight);
+				}
+				if (y + 1 < side) {
+					sources[e] = v;
+					targets[e] = v + side;
+					weights[e++] = 1 + random.nextInt(maxWeight);
+				}
+			}
+		}
+		graph = CsrGraph.undirected(side * side, sources, targets, weights);
+	}
+
+	@Benchmark
+	public long dijkstra() {
+		ShortestPaths paths = ShortestPaths.dijkstra(graph, 0);
+		return paths.distance(graph.vertexCount() - 1);
+	}
+
+	@Benchmark
+	public long reinsertingDijkstra() {
+		long[] distances = new long[graph.vertexCount()];
+		Arrays.fill(distances, Long.MAX_VALUE);
+		PriorityQueue<long[]> queue = new PriorityQueue<>((first, second) -> Long.compare(first[0], second[0]));
+		distances[0] = 0;
+		queue.add(new long[] { 0, 0 });
+		while (!queue.isEmpty()) {
+			long[] entry = queue.poll();
+			int u = (int) entry[1];
+			if (entry[0] > distances[u])
+				continue;
+			for (int e = graph.firstEdge(u); e < graph.endEdge(u); ++e) {
+				int v = graph.target(e);
+				long distance = distances[u] + graph.weight(e);
+				if (distance < distances[v]) {
+					distances[v] = distance;
+					queue.add(new long[] { distance, v });
+				}
+			}
+		}
+		return distances[graph.vertexCount() - 1];
+	}
+
+	@Benchmark
+	public long aStar() {
+		int target = graph.vertexCount() - 1;
+		ShortestPaths paths = ShortestPaths.aStar(graph, 0, target,
+				v -> (side - 1 - v % side) + (side - 1 - v / side));
+		return paths.distance(target);
+	}
+
+	@Benchmark
+	public long prim() {
+		return SpanningForest.prim(graph).totalWeight();
+	}
+}
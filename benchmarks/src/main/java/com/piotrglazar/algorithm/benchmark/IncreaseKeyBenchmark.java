@@ -0,0 +1,96 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.piotrglazar.algorithm.DaryMaxHeap;
+import com.piotrglazar.algorithm.FibonacciMaxHeap;
+import com.piotrglazar.algorithm.Heap;
+import com.piotrglazar.algorithm.MaxHeap;
+import com.piotrglazar.algorithm.PairingMaxHeap;
+
+/**
+ * Dijkstra/Prim-style workload on a max heap: every poll is followed by {@code changesPerPoll} key increases (a
+ * shorter distance is a greater priority). The polled item is re-offered with a low key, which keeps the heap size
+ * constant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IncreaseKeyBenchmark {
+
+	public enum Implementation {
+		MAX_HEAP, DARY_MAX_HEAP_4, PAIRING_MAX_HEAP, FIBONACCI_MAX_HEAP
+	}
+
+	@Param({ "MAX_HEAP", "DARY_MAX_HEAP_4", "PAIRING_MAX_HEAP", "FIBONACCI_MAX_HEAP" })
+	private Implementation implementation;
+
+	@Param({ "100000", "1000000" })
+	private int size;
+
+	@Param({ "1", "8" })
+	private int changesPerPoll;
+
+	private Item[] items;
+
+	private Random random;
+
+	private long lowestKey;
+
+	private Heap<Item> heap;
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		Comparator<Item> comparator = ComparatorCost.CHEAP.comparator();
+		switch (implementation) {
+		case MAX_HEAP:
+			heap = new MaxHeap<>(comparator);
+			break;
+		case DARY_MAX_HEAP_4:
+			heap = new DaryMaxHeap<>(4, comparator);
+			break;
+		case PAIRING_MAX_HEAP:
+			heap = new PairingMaxHeap<>(comparator);
+			break;
+		case FIBONACCI_MAX_HEAP:
+			heap = new FibonacciMaxHeap<>(comparator);
+			break;
+		}
+		items = KeyDistribution.UNIFORM.items(size, 42);
+		for (Item item : items)
+			heap.offer(item);
+		random = new Random(43);
+		lowestKey = 0;
+	}
+
+	@Benchmark
+	public Item pollAndIncreaseKeys() {
+		Item polled = heap.poll();
+		polled.setKey(--lowestKey);
+		heap.offer(polled);
+		for (int i = 0; i < changesPerPoll; ++i) {
+			Item item = items[random.nextInt(items.length)];
+			item.setKey(item.getKey() + random.nextInt(1 << 20));
+			heap.changeKey(item);
+		}
+		return polled;
+	}
+}
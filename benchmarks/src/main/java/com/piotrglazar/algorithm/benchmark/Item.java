@@ -0,0 +1,40 @@
+package com.piotrglazar.algorithm.benchmark;
+
+/**
+ * Heap element with mutable key. Equality is identity, so items with equal keys are distinct heap elements.
+ */
+public final class Item {
+
+	private long key;
+
+	/**
+	 * Key split into digits, compared by {@link ComparatorCost#EXPENSIVE} to simulate comparators which dereference
+	 * several fields.
+	 */
+	private final long[] fields = new long[4];
+
+	public Item(long key) {
+		setKey(key);
+	}
+
+	public long getKey() {
+		return key;
+	}
+
+	public void setKey(long key) {
+		this.key = key;
+		fields[0] = key / 1000;
+		fields[1] = key / 100;
+		fields[2] = key / 10;
+		fields[3] = key;
+	}
+
+	long field(int i) {
+		return fields[i];
+	}
+
+	@Override
+	public String toString() {
+		return "Item " + key;
+	}
+}
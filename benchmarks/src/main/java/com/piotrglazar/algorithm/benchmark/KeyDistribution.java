@@ -0,0 +1,44 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.Random;
+
+public enum KeyDistribution {
+
+	UNIFORM {
+		@Override
+		public long key(int i, int size, Random random) {
+			return random.nextInt(Integer.MAX_VALUE);
+		}
+	},
+
+	ASCENDING {
+		@Override
+		public long key(int i, int size, Random random) {
+			return i;
+		}
+	},
+
+	DESCENDING {
+		@Override
+		public long key(int i, int size, Random random) {
+			return size - i;
+		}
+	},
+
+	FEW_DISTINCT {
+		@Override
+		public long key(int i, int size, Random random) {
+			return random.nextInt(16);
+		}
+	};
+
+	public abstract long key(int i, int size, Random random);
+
+	public Item[] items(int size, long seed) {
+		Random random = new Random(seed);
+		Item[] items = new Item[size];
+		for (int i = 0; i < size; ++i)
+			items[i] = new Item(key(i, size, random));
+		return items;
+	}
+}
@@ -0,0 +1,149 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.piotrglazar.algorithm.MaxHeap;
+
+/**
+ * Steady-state single operations on a heap of {@code size} items, compared with {@link PriorityQueue} where it has an
+ * equivalent. Each benchmark builds only the structure it measures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MaxHeapBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	private int size;
+
+	@Param({ "UNIFORM", "ASCENDING", "FEW_DISTINCT" })
+	private KeyDistribution distribution;
+
+	@Param({ "CHEAP", "EXPENSIVE" })
+	private ComparatorCost comparatorCost;
+
+	private long[] keys;
+
+	private int next;
+
+	private Item spare;
+
+	@State(Scope.Thread)
+	public static class HeapState {
+
+		private Item[] items;
+
+		private MaxHeap<Item> heap;
+
+		@Setup(Level.Iteration)
+		public void setUp(MaxHeapBenchmark workload) {
+			items = workload.distribution.items(workload.size, 42);
+			heap = MaxHeap.buildHeap(Arrays.asList(items), workload.comparatorCost.comparator());
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class QueueState {
+
+		private Item[] items;
+
+		private PriorityQueue<Item> priorityQueue;
+
+		@Setup(Level.Iteration)
+		public void setUp(MaxHeapBenchmark workload) {
+			items = workload.distribution.items(workload.size, 42);
+			priorityQueue = new PriorityQueue<>(items.length + 1, workload.comparatorCost.comparator().reversed());
+			priorityQueue.addAll(Arrays.asList(items));
+		}
+	}
+
+	@Setup(Level.Iteration)
+	public void setUp() {
+		keys = new long[1 << 16];
+		Item[] keySource = distribution.items(keys.length, 43);
+		for (int i = 0; i < keys.length; ++i)
+			keys[i] = keySource[i].getKey();
+		spare = new Item(0);
+		next = 0;
+	}
+
+	@Benchmark
+	public Item maxHeapOfferPoll(HeapState state) {
+		spare.setKey(nextKey());
+		state.heap.offer(spare);
+		spare = state.heap.poll();
+		return spare;
+	}
+
+	@Benchmark
+	public Item priorityQueueOfferPoll(QueueState state) {
+		spare.setKey(nextKey());
+		state.priorityQueue.offer(spare);
+		spare = state.priorityQueue.poll();
+		return spare;
+	}
+
+	@Benchmark
+	public Item maxHeapChangeKey(HeapState state) {
+		Item item = nextItem(state.items);
+		item.setKey(nextKey());
+		state.heap.changeKey(item);
+		return item;
+	}
+
+	/**
+	 * PriorityQueue has no key update, the usual replacement is remove and re-add.
+	 */
+	@Benchmark
+	public Item priorityQueueRemoveAndAddInsteadOfChangeKey(QueueState state) {
+		Item item = nextItem(state.items);
+		state.priorityQueue.remove(item);
+		item.setKey(nextKey());
+		state.priorityQueue.add(item);
+		return item;
+	}
+
+	@Benchmark
+	public Item maxHeapRemoveObjectAndAdd(HeapState state) {
+		Item item = nextItem(state.items);
+		state.heap.remove(item);
+		state.heap.add(item);
+		return item;
+	}
+
+	@Benchmark
+	public Item priorityQueueRemoveObjectAndAdd(QueueState state) {
+		Item item = nextItem(state.items);
+		state.priorityQueue.remove(item);
+		state.priorityQueue.add(item);
+		return item;
+	}
+
+	private Item nextItem(Item[] items) {
+		Item item = items[next % items.length];
+		++next;
+		return item;
+	}
+
+	private long nextKey() {
+		return keys[next++ & (keys.length - 1)];
+	}
+}
@@ -0,0 +1,168 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.piotrglazar.algorithm.LongMaxHeap;
+import com.piotrglazar.algorithm.MaxHeap;
+import com.piotrglazar.algorithm.RadixHeap;
+
+/**
+ * Dijkstra's algorithm from vertex 0 on a random directed graph with {@code degree} out-edges per vertex and integer
+ * weights in [1, maxWeight], using {@link MaxHeap} of vertex objects, the primitive {@link LongMaxHeap} (both with
+ * negated distances) and the monotone {@link RadixHeap}. Every variant updates keys in place instead of re-inserting.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ShortestPathBenchmark {
+
+	private static final class Vertex {
+
+		private final int id;
+
+		private long distance;
+
+		private Vertex(int id) {
+			this.id = id;
+		}
+	}
+
+	@Param({ "100000", "1000000" })
+	private int vertices;
+
+	@Param({ "8" })
+	private int degree;
+
+	@Param({ "100", "1000000" })
+	private int maxWeight;
+
+	private int[] offsets;
+
+	private int[] targets;
+
+	private int[] weights;
+
+	private long[] distances;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		Random random = new Random(42);
+		offsets = new int[vertices + 1];
+		targets = new int[vertices * degree];
+		weights = new int[vertices * degree];
+		for (int v = 0; v < vertices; ++v) {
+			offsets[v + 1] = offsets[v] + degree;
+			for (int e = offsets[v]; e < offsets[v + 1]; ++e) {
+				targets[e] = random.nextInt(vertices);
+				weights[e] = 1 + random.nextInt(maxWeight);
+			}
+		}
+		distances = new long[vertices];
+	}
+
+	@Benchmark
+	public long maxHeap() {
+		Vertex[] vertexes = new Vertex[vertices];
+		for (int v = 0; v < vertices; ++v) {
+			vertexes[v] = new Vertex(v);
+			vertexes[v].distance = Long.MAX_VALUE;
+		}
+		MaxHeap<Vertex> heap = new MaxHeap<>((first, second) -> Long.compare(second.distance, first.distance));
+		vertexes[0].distance = 0;
+		heap.add(vertexes[0]);
+		while (!heap.isEmpty()) {
+			Vertex u = heap.poll();
+			for (int e = offsets[u.id]; e < offsets[u.id + 1]; ++e) {
+				Vertex v = vertexes[targets[e]];
+				long distance = u.distance + weights[e];
+				if (distance < v.distance) {
+					boolean queued = v.distance != Long.MAX_VALUE;
+					v.distance = distance;
+					if (queued)
+						heap.changeKey(v);
+					else
+						heap.add(v);
+				}
+			}
+		}
+		return checksum(vertexes);
+	}
+
+	@Benchmark
+	public long longMaxHeap() {
+		Arrays.fill(distances, Long.MAX_VALUE);
+		LongMaxHeap heap = new LongMaxHeap(vertices);
+		distances[0] = 0;
+		heap.add(0, 0);
+		while (!heap.isEmpty()) {
+			int u = heap.poll();
+			for (int e = offsets[u]; e < offsets[u + 1]; ++e) {
+				int v = targets[e];
+				long distance = distances[u] + weights[e];
+				if (distance < distances[v]) {
+					if (distances[v] == Long.MAX_VALUE)
+						heap.add(v, -distance);
+					else
+						heap.changeKey(v, -distance);
+					distances[v] = distance;
+				}
+			}
+		}
+		return checksum(distances);
+	}
+
+	@Benchmark
+	public long radixHeap() {
+		Arrays.fill(distances, Long.MAX_VALUE);
+		RadixHeap heap = new RadixHeap(vertices);
+		distances[0] = 0;
+		heap.add(0, 0);
+		while (!heap.isEmpty()) {
+			int u = heap.poll();
+			for (int e = offsets[u]; e < offsets[u + 1]; ++e) {
+				int v = targets[e];
+				long distance = distances[u] + weights[e];
+				if (distance < distances[v]) {
+					if (distances[v] == Long.MAX_VALUE)
+						heap.add(v, distance);
+					else
+						heap.changeKey(v, distance);
+					distances[v] = distance;
+				}
+			}
+		}
+		return checksum(distances);
+	}
+
+	private static long checksum(Vertex[] vertexes) {
+		long sum = 0;
+		for (Vertex vertex : vertexes)
+			sum += vertex.distance;
+		return sum;
+	}
+
+	private static long checksum(long[] distances) {
+		long sum = 0;
+		for (long distance : distances)
+			sum += distance;
+		return sum;
+	}
+}
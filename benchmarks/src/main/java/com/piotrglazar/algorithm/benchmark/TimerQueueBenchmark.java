@@ -0,0 +1,111 @@
+package com.piotrglazar.algorithm.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.piotrglazar.algorithm.TimerQueue;
+import com.piotrglazar.algorithm.TimerQueue.Timer;
+
+/**
+ * Timeout workload on {@link TimerQueue} with millions of pending timers whose delays are uniform in about a second of
+ * nanoseconds: rescheduling (a connection saw traffic), cancelling and scheduling anew, and advancing time while
+ * expiring due timers in batches. Expired timers are scheduled again, so the number of pending timers stays constant.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class TimerQueueBenchmark {
+
+	public enum Implementation {
+		HEAP, TIMING_WHEEL
+	}
+
+	private static final int HORIZON = 1 << 30;
+
+	private static final long STEP = 1 << 14;
+
+	private static final int BATCH = 1024;
+
+	@Param({ "HEAP", "TIMING_WHEEL" })
+	private Implementation implementation;
+
+	@Param({ "1000000", "10000000" })
+	private int size;
+
+	private TimerQueue<Integer> queue;
+
+	private Timer<Integer>[] timers;
+
+	private List<Timer<Integer>> expired;
+
+	private Random random;
+
+	private long now;
+
+	@Setup(Level.Trial)
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		now = 0;
+		queue = implementation == Implementation.HEAP ? new TimerQueue<>()
+				: TimerQueue.withTimingWheel(now, STEP, 256, 3);
+		timers = new Timer[size];
+		random = new Random(42);
+		for (int i = 0; i < size; ++i)
+			timers[i] = queue.schedule(i, delay());
+		expired = new ArrayList<>(BATCH);
+	}
+
+	@Benchmark
+	public Timer<Integer> reschedule() {
+		Timer<Integer> timer = timers[random.nextInt(size)];
+		queue.reschedule(timer, now + delay());
+		return timer;
+	}
+
+	@Benchmark
+	public Timer<Integer> cancelAndSchedule() {
+		int i = random.nextInt(size);
+		queue.cancel(timers[i]);
+		return timers[i] = queue.schedule(i, now + delay());
+	}
+
+	/**
+	 * Moves time by one tick of the wheel, 16 microseconds, which expires about size / 65536 timers.
+	 */
+	@Benchmark
+	public int advanceAndExpire() {
+		now += STEP;
+		int count = 0;
+		int drained;
+		do {
+			expired.clear();
+			drained = queue.expire(now, BATCH, expired);
+			for (Timer<Integer> timer : expired)
+				timers[timer.payload()] = queue.schedule(timer.payload(), now + delay());
+			count += drained;
+		} while (drained == BATCH);
+		return count;
+	}
+
+	private long delay() {
+		return random.nextInt(HORIZON);
+	}
+}
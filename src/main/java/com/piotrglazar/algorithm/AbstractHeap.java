@@ -0,0 +1,42 @@
+package com.piotrglazar.algorithm;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+public abstract class AbstractHeap<E> extends AbstractQueue<E> implements Heap<E> {
+
+	protected final Comparator<? super E> comparator;
+
+	protected AbstractHeap(Comparator<? super E> comparator) {
+		this.comparator = Preconditions.checkNotNull(comparator, "Null comparator");
+	}
+
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		Preconditions.checkArgument(c != null, "Null collection");
+		boolean changed = false;
+		for (Object o : c)
+			changed |= remove(o);
+		return changed;
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		Preconditions.checkArgument(c != null, "Null collection");
+		List<E> toRemove = new ArrayList<>();
+		for (E e : this) {
+			if (!c.contains(e))
+				toRemove.add(e);
+		}
+		return removeAll(toRemove);
+	}
+}
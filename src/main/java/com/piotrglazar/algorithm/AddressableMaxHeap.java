@@ -0,0 +1,203 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Max heap which returns a {@link Handle} for every inserted element. The handle remembers the slot its element
+ * occupies, so {@link #changeKey(Handle)}, {@link #remove(Handle)} and {@link #contains(Handle)} neither hash nor
+ * search the element. Equal elements may be inserted many times, each getting its own handle.
+ */
+public class AddressableMaxHeap<E> implements Iterable<E> {
+
+	public static final class Handle<E> {
+
+		private static final int REMOVED = -1;
+
+		private final AddressableMaxHeap<E> owner;
+
+		private final E element;
+
+		private int index;
+
+		private Handle(AddressableMaxHeap<E> owner, E element, int index) {
+			this.owner = owner;
+			this.element = element;
+			this.index = index;
+		}
+
+		public E getElement() {
+			return element;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Handle %s at %s", element, index);
+		}
+	}
+
+	private final Comparator<? super E> comparator;
+
+	private Handle<E>[] array;
+
+	private int heapSize = 0;
+
+	public AddressableMaxHeap(Comparator<? super E> comparator) {
+		this(16, comparator);
+	}
+
+	@SuppressWarnings("unchecked")
+	public AddressableMaxHeap(int capacity, Comparator<? super E> comparator) {
+		checkArgument(capacity > 0, "Capacity must be positive, got %s", capacity);
+		this.comparator = checkNotNull(comparator, "Null comparator");
+		array = new Handle[capacity];
+	}
+
+	public int size() {
+		return heapSize;
+	}
+
+	public boolean isEmpty() {
+		return heapSize == 0;
+	}
+
+	public Handle<E> offer(E e) {
+		if (heapSize == array.length)
+			array = Arrays.copyOf(array, heapSize << 1);
+		Handle<E> handle = new Handle<>(this, e, heapSize);
+		array[heapSize] = handle;
+		siftUp(heapSize++);
+		return handle;
+	}
+
+	public E peek() {
+		return isEmpty() ? null : array[0].element;
+	}
+
+	public Handle<E> peekHandle() {
+		return isEmpty() ? null : array[0];
+	}
+
+	public E poll() {
+		if (isEmpty())
+			return null;
+		E max = array[0].element;
+		removeAt(0);
+		return max;
+	}
+
+	public E element() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return array[0].element;
+	}
+
+	public boolean contains(Handle<E> handle) {
+		return handle.owner == this && handle.index != Handle.REMOVED;
+	}
+
+	/**
+	 * Restores heap after the key of handle's element has changed in either direction.
+	 */
+	public void changeKey(Handle<E> handle) {
+		checkArgument(contains(handle), "%s is not present in heap", handle);
+		int index = handle.index;
+		siftUp(index);
+		if (handle.index == index)
+			siftDown(index);
+	}
+
+	public boolean remove(Handle<E> handle) {
+		if (!contains(handle))
+			return false;
+		removeAt(handle.index);
+		return true;
+	}
+
+	public void clear() {
+		for (int i = 0; i < heapSize; ++i) {
+			array[i].index = Handle.REMOVED;
+			array[i] = null;
+		}
+		heapSize = 0;
+	}
+
+	/**
+	 * Returns elements in internal (heap) order.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < heapSize;
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return array[next++].element;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	private void removeAt(int i) {
+		Handle<E> removed = array[i];
+		removed.index = Handle.REMOVED;
+		Handle<E> last = array[--heapSize];
+		array[heapSize] = null;
+		if (i == heapSize)
+			return;
+		set(last, i);
+		if (comparator.compare(last.element, removed.element) > 0)
+			siftUp(i);
+		else
+			siftDown(i);
+	}
+
+	private void siftUp(int i) {
+		Handle<E> handle = array[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (comparator.compare(array[parent].element, handle.element) >= 0)
+				break;
+			set(array[parent], i);
+			i = parent;
+		}
+		set(handle, i);
+	}
+
+	private void siftDown(int i) {
+		Handle<E> handle = array[i];
+		int half = heapSize >>> 1;
+		while (i < half) {
+			int son = (i << 1) + 1;
+			if (son + 1 < heapSize && comparator.compare(array[son + 1].element, array[son].element) > 0)
+				++son;
+			if (comparator.compare(handle.element, array[son].element) >= 0)
+				break;
+			set(array[son], i);
+			i = son;
+		}
+		set(handle, i);
+	}
+
+	private void set(Handle<E> handle, int index) {
+		array[index] = handle;
+		handle.index = index;
+	}
+}
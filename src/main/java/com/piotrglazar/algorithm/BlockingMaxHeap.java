@@ -0,0 +1,380 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link BlockingQueue} of the greatest elements first, backed by a {@link MaxHeap} guarded by a single lock, optionally
+ * bounded. Producers and consumers wait on separate conditions and every change of size wakes only as many waiters as
+ * it can satisfy: an offer wakes one consumer, a drain of k elements wakes up to k producers, and nobody is signalled
+ * when nobody waits.
+ * <p>
+ * Waiting is done with {@link ReentrantLock} and {@link Condition} rather than monitors, so a waiting virtual thread
+ * unmounts instead of pinning its carrier, and one producer can feed thousands of virtual-thread consumers.
+ * <p>
+ * Like {@link MaxHeap}, duplicates are not supported. Null elements are rejected. Iterators and {@link #toArray()}
+ * work on a copy taken under the lock, and {@link Iterator#remove()} removes the last returned element from the queue.
+ */
+public class BlockingMaxHeap<E> extends AbstractQueue<E> implements BlockingQueue<E>, Heap<E> {
+
+	private final MaxHeap<E> heap;
+
+	private final int capacity;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition notEmpty = lock.newCondition();
+
+	private final Condition notFull = lock.newCondition();
+
+	private int waitingConsumers = 0;
+
+	private int waitingProducers = 0;
+
+	public BlockingMaxHeap(Comparator<? super E> comparator) {
+		this(comparator, Integer.MAX_VALUE);
+	}
+
+	public BlockingMaxHeap(Comparator<? super E> comparator, int capacity) {
+		checkArgument(capacity > 0, "Capacity must be positive, got %s", capacity);
+		this.heap = new MaxHeap<>(comparator);
+		this.capacity = capacity;
+	}
+
+	@Override
+	public int size() {
+		lock.lock();
+		try {
+			return heap.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int remainingCapacity() {
+		lock.lock();
+		try {
+			return capacity - heap.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean offer(E e) {
+		checkNotNull(e);
+		lock.lock();
+		try {
+			if (heap.size() == capacity)
+				return false;
+			enqueue(e);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void put(E e) throws InterruptedException {
+		checkNotNull(e);
+		lock.lockInterruptibly();
+		try {
+			while (heap.size() == capacity) {
+				++waitingProducers;
+				try {
+					notFull.await();
+				} finally {
+					--waitingProducers;
+				}
+			}
+			enqueue(e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+		checkNotNull(e);
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			while (heap.size() == capacity) {
+				if (nanos <= 0)
+					return false;
+				++waitingProducers;
+				try {
+					nanos = notFull.awaitNanos(nanos);
+				} finally {
+					--waitingProducers;
+				}
+			}
+			enqueue(e);
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public E poll() {
+		lock.lock();
+		try {
+			return heap.isEmpty() ? null : dequeue();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public E take() throws InterruptedException {
+		lock.lockInterruptibly();
+		try {
+			while (heap.isEmpty()) {
+				++waitingConsumers;
+				try {
+					notEmpty.await();
+				} finally {
+					--waitingConsumers;
+				}
+			}
+			return dequeue();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			if (!awaitNotEmpty(nanos))
+				return null;
+			return dequeue();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public E peek() {
+		lock.lock();
+		try {
+			return heap.peek();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int drainTo(Collection<? super E> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Removes up to maxElements greatest elements without waiting and adds them to the given collection, greatest
+	 * first.
+	 */
+	@Override
+	public int drainTo(Collection<? super E> c, int maxElements) {
+		checkNotNull(c);
+		checkArgument(c != this, "Cannot drain to itself");
+		lock.lock();
+		try {
+			return drainLocked(c, maxElements);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Waits up to timeout for at least one element, then removes up to maxElements greatest elements and adds them to
+	 * the given collection, greatest first. Returns the number of elements drained, 0 when timed out. Lets a consumer
+	 * take a batch with one lock acquisition.
+	 */
+	public int drainTo(Collection<? super E> c, int maxElements, long timeout, TimeUnit unit)
+			throws InterruptedException {
+		checkNotNull(c);
+		checkArgument(c != this, "Cannot drain to itself");
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try {
+			if (maxElements <= 0 || !awaitNotEmpty(nanos))
+				return 0;
+			return drainLocked(c, maxElements);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Restores heap after the key of element present in the queue has changed.
+	 */
+	@Override
+	public void changeKey(E e) {
+		lock.lock();
+		try {
+			heap.changeKey(e);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void changeKeys(Collection<? extends E> elements) {
+		lock.lock();
+		try {
+			heap.changeKeys(elements);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		lock.lock();
+		try {
+			boolean removed = heap.remove(o);
+			if (removed)
+				signalProducers(1);
+			return removed;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		lock.lock();
+		try {
+			return heap.contains(o);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		lock.lock();
+		try {
+			int removed = heap.size();
+			heap.clear();
+			signalProducers(removed);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public Object[] toArray() {
+		lock.lock();
+		try {
+			return heap.toArray();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public <T> T[] toArray(T[] a) {
+		lock.lock();
+		try {
+			return heap.toArray(a);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns elements in internal (heap) order, from a copy taken under the lock. Removing through the iterator
+	 * removes the element from the queue if it is still present.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new SnapshotIterator(toArray());
+	}
+
+	private boolean awaitNotEmpty(long nanos) throws InterruptedException {
+		while (heap.isEmpty()) {
+			if (nanos <= 0)
+				return false;
+			++waitingConsumers;
+			try {
+				nanos = notEmpty.awaitNanos(nanos);
+			} finally {
+				--waitingConsumers;
+			}
+		}
+		return true;
+	}
+
+	private void enqueue(E e) {
+		heap.add(e);
+		if (waitingConsumers > 0)
+			notEmpty.signal();
+	}
+
+	private E dequeue() {
+		E max = heap.poll();
+		signalProducers(1);
+		return max;
+	}
+
+	private int drainLocked(Collection<? super E> c, int maxElements) {
+		int drained = heap.drainTo(c, maxElements);
+		signalProducers(drained);
+		return drained;
+	}
+
+	private void signalProducers(int freed) {
+		for (int i = Math.min(freed, waitingProducers); i > 0; --i)
+			notFull.signal();
+	}
+
+	private class SnapshotIterator implements Iterator<E> {
+
+		private final Object[] snapshot;
+
+		private int cursor = 0;
+
+		private int lastReturned = -1;
+
+		private SnapshotIterator(Object[] snapshot) {
+			this.snapshot = snapshot;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return cursor < snapshot.length;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public E next() {
+			if (cursor >= snapshot.length)
+				throw new NoSuchElementException();
+			lastReturned = cursor;
+			return (E) snapshot[cursor++];
+		}
+
+		@Override
+		public void remove() {
+			checkState(lastReturned >= 0, "No element to remove");
+			BlockingMaxHeap.this.remove(snapshot[lastReturned]);
+			lastReturned = -1;
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe bounded max heap with a lock per node (Hunt, Michael, Parthasarathy, Scott: "An efficient algorithm for
+ * concurrent priority queue heaps"). The global lock only guards the size counter, sifting is done with hand-over-hand
+ * locking from parent to son, and consecutive insertions go to bit-reversed slots of the bottom level so they do not
+ * climb the same path. {@link #changeKey(Object)} reuses the sift-down of polling and the sift-up of insertion.
+ * <p>
+ * Like {@link MaxHeap}, elements are located through a map, so duplicates are not supported. {@link #remove(Object)}
+ * is not supported.
+ */
+public class ConcurrentMaxHeap<E> extends AbstractHeap<E> {
+
+	private static final Object EMPTY = new Object();
+
+	private static final Object AVAILABLE = new Object();
+
+	private static final class Node<E> {
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private E item;
+
+		/**
+		 * {@link #EMPTY}, {@link #AVAILABLE} or the thread which is sifting the item up.
+		 */
+		private Object tag = EMPTY;
+	}
+
+	private final ReentrantLock heapLock = new ReentrantLock();
+
+	private final int capacity;
+
+	/**
+	 * Bit-reversed slots spread over the whole bottom level, so the tree is always allocated up to full levels.
+	 */
+	private final Node<E>[] nodes;
+
+	private final ConcurrentMap<E, Integer> map = new ConcurrentHashMap<>();
+
+	private volatile int heapSize = 0;
+
+	@SuppressWarnings("unchecked")
+	public ConcurrentMaxHeap(int capacity, Comparator<? super E> comparator) {
+		super(comparator);
+		checkArgument(capacity > 0 && capacity < 1 << 30, "Capacity must be in (0, 2^30), got %s", capacity);
+		this.capacity = capacity;
+		nodes = new Node[Integer.highestOneBit(capacity) << 1];
+		for (int i = 1; i < nodes.length; ++i)
+			nodes[i] = new Node<>();
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	@Override
+	public int size() {
+		return heapSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return heapSize == 0;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return map.containsKey(o);
+	}
+
+	@Override
+	public boolean offer(E e) {
+		Object me = Thread.currentThread();
+		heapLock.lock();
+		if (heapSize == capacity) {
+			heapLock.unlock();
+			return false;
+		}
+		int i = slot(++heapSize);
+		Node<E> node = nodes[i];
+		node.lock.lock();
+		heapLock.unlock();
+		node.item = e;
+		node.tag = me;
+		map.put(e, i);
+		node.lock.unlock();
+		siftUp(i, me);
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		heapLock.lock();
+		if (heapSize == 0) {
+			heapLock.unlock();
+			return null;
+		}
+		Node<E> bottom = nodes[slot(heapSize--)];
+		bottom.lock.lock();
+		heapLock.unlock();
+		E last = bottom.item;
+		bottom.item = null;
+		bottom.tag = EMPTY;
+		bottom.lock.unlock();
+
+		Node<E> root = nodes[1];
+		root.lock.lock();
+		if (root.tag == EMPTY) {
+			map.remove(last);
+			root.lock.unlock();
+			return last;
+		}
+		E max = root.item;
+		map.remove(max);
+		root.item = last;
+		root.tag = AVAILABLE;
+		map.put(last, 1);
+		siftDown(1);
+		return max;
+	}
+
+	@Override
+	public E peek() {
+		Node<E> root = nodes[1];
+		root.lock.lock();
+		try {
+			return root.tag == EMPTY ? null : root.item;
+		} finally {
+			root.lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		throw new UnsupportedOperationException("Removing arbitrary elements is not supported");
+	}
+
+	@Override
+	public void clear() {
+		while (poll() != null) {
+			// drain
+		}
+	}
+
+	/**
+	 * Restores heap after the key of element has either increased or decreased: the element is first moved down while a
+	 * son is greater, then up while its parent is smaller. Waits while the element is still being sifted up by a
+	 * concurrent insertion or key change.
+	 */
+	@Override
+	public void changeKey(E e) {
+		Object me = Thread.currentThread();
+		while (true) {
+			Integer index = map.get(e);
+			checkState(index != null, "Element %s should be present in heap", e);
+			Node<E> node = nodes[index];
+			node.lock.lock();
+			if (e.equals(node.item) && node.tag == AVAILABLE) {
+				node.tag = me;
+				siftUp(siftDown(index), me);
+				return;
+			}
+			node.lock.unlock();
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * Returns weakly consistent snapshot of elements in internal (heap) order.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		List<E> snapshot = new ArrayList<>();
+		for (int i = 1; i < nodes.length; ++i) {
+			Node<E> node = nodes[i];
+			node.lock.lock();
+			if (node.tag != EMPTY)
+				snapshot.add(node.item);
+			node.lock.unlock();
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+
+	private void siftUp(int i, Object me) {
+		while (i > 1) {
+			int parentIndex = i >> 1;
+			Node<E> parent = nodes[parentIndex];
+			Node<E> son = nodes[i];
+			parent.lock.lock();
+			son.lock.lock();
+			try {
+				if (parent.tag == AVAILABLE && son.tag == me) {
+					if (comparator.compare(son.item, parent.item) > 0) {
+						swap(parentIndex, i);
+						i = parentIndex;
+					} else {
+						son.tag = AVAILABLE;
+						return;
+					}
+				} else if (parent.tag == EMPTY) {
+					// our item has been moved to the root by concurrent poll
+					return;
+				} else if (son.tag != me) {
+					// our item has been moved up by concurrent poll
+					i = parentIndex;
+				}
+			} finally {
+				son.lock.unlock();
+				parent.lock.unlock();
+			}
+		}
+		Node<E> root = nodes[1];
+		root.lock.lock();
+		if (root.tag == me)
+			root.tag = AVAILABLE;
+		root.lock.unlock();
+	}
+
+	/**
+	 * Called with node i locked, returns the final position of its item with all locks released.
+	 */
+	private int siftDown(int i) {
+		while (true) {
+			int left = i << 1;
+			int right = left + 1;
+			if (left >= nodes.length)
+				break;
+			Node<E> leftSon = nodes[left];
+			Node<E> rightSon = nodes[right];
+			leftSon.lock.lock();
+			rightSon.lock.lock();
+			if (leftSon.tag == EMPTY) {
+				unlock(leftSon, rightSon);
+				break;
+			}
+			int son;
+			if (rightSon.tag == EMPTY || comparator.compare(leftSon.item, rightSon.item) > 0) {
+				son = left;
+				unlock(rightSon);
+			} else {
+				son = right;
+				unlock(leftSon);
+			}
+			Node<E> sonNode = nodes[son];
+			if (comparator.compare(sonNode.item, nodes[i].item) > 0) {
+				swap(i, son);
+				nodes[i].lock.unlock();
+				i = son;
+			} else {
+				sonNode.lock.unlock();
+				break;
+			}
+		}
+		nodes[i].lock.unlock();
+		return i;
+	}
+
+	private void swap(int i, int j) {
+		Node<E> first = nodes[i];
+		Node<E> second = nodes[j];
+		E item = first.item;
+		Object tag = first.tag;
+		first.item = second.item;
+		first.tag = second.tag;
+		second.item = item;
+		second.tag = tag;
+		map.put(first.item, i);
+		map.put(second.item, j);
+	}
+
+	@SafeVarargs
+	private static <E> void unlock(Node<E>... toUnlock) {
+		for (Node<E> node : toUnlock)
+			node.lock.unlock();
+	}
+
+	/**
+	 * Maps n-th slot of the heap to its bit-reversed position within the same level.
+	 */
+	static int slot(int n) {
+		int high = Integer.highestOneBit(n);
+		int bits = Integer.numberOfTrailingZeros(high);
+		if (bits == 0)
+			return n;
+		return high | (Integer.reverse(n ^ high) >>> (32 - bits));
+	}
+}
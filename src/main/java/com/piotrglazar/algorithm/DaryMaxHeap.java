@@ -0,0 +1,192 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Max heap in which every node has up to {@code arity} sons. Wider nodes make the tree shallower, so sift-up touches
+ * fewer levels and sift-down compares sons which lie next to each other in the backing array. Arity 2 is equivalent
+ * to {@link MaxHeap}.
+ */
+public class DaryMaxHeap<E> extends AbstractHeap<E> {
+
+	private final int arity;
+
+	private final ArrayList<E> array = new ArrayList<>();
+
+	private final Map<E, Integer> map = new HashMap<>();
+
+	public DaryMaxHeap(int arity, Comparator<? super E> comparator) {
+		super(comparator);
+		checkArgument(arity >= 2, "Arity must be at least 2, got %s", arity);
+		this.arity = arity;
+	}
+
+	public static <F> DaryMaxHeap<F> buildHeap(int arity, Collection<F> collection, Comparator<? super F> comparator) {
+		DaryMaxHeap<F> heap = new DaryMaxHeap<>(arity, comparator);
+		heap.addAll(collection);
+		return heap;
+	}
+
+	public int arity() {
+		return arity;
+	}
+
+	@Override
+	public int size() {
+		return array.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return array.isEmpty();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return map.containsKey(o);
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return Collections.unmodifiableList(array).iterator();
+	}
+
+	@Override
+	public Object[] toArray() {
+		return array.toArray();
+	}
+
+	@Override
+	public <T> T[] toArray(T[] a) {
+		return array.toArray(a);
+	}
+
+	@Override
+	public boolean offer(E e) {
+		array.add(e);
+		siftUp(array.size() - 1, e);
+		return true;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		checkArgument(c != null, "Null collection");
+		if (c.size() < array.size())
+			return super.addAll(c);
+		if (c.isEmpty())
+			return false;
+		array.addAll(c);
+		for (int i = parent(array.size() - 1); i >= 0; --i)
+			siftDown(i, array.get(i));
+		for (int i = 0; i < array.size(); ++i)
+			map.put(array.get(i), i);
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		if (isEmpty())
+			return null;
+		E max = array.get(0);
+		removeAt(0);
+		return max;
+	}
+
+	@Override
+	public E peek() {
+		return isEmpty() ? null : array.get(0);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Integer index = map.get(o);
+		if (index == null)
+			return false;
+		removeAt(index);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		array.clear();
+		map.clear();
+	}
+
+	@Override
+	public void changeKey(E e) {
+		Integer index = map.get(e);
+		checkState(index != null, "Element %s should be present in heap", e);
+		siftUp(index, e);
+		if (array.get(index) == e)
+			siftDown(index, e);
+	}
+
+	private void removeAt(int index) {
+		E removed = array.get(index);
+		map.remove(removed);
+		int last = array.size() - 1;
+		E moved = array.remove(last);
+		if (index == last)
+			return;
+		if (comparator.compare(moved, removed) > 0)
+			siftUp(index, moved);
+		else
+			siftDown(index, moved);
+	}
+
+	private void siftUp(int i, E element) {
+		while (i > 0) {
+			int parent = parent(i);
+			E parentValue = array.get(parent);
+			if (comparator.compare(parentValue, element) >= 0)
+				break;
+			set(parentValue, i);
+			i = parent;
+		}
+		set(element, i);
+	}
+
+	private void siftDown(int i, E element) {
+		int size = array.size();
+		int son;
+		while ((son = firstSon(i)) < size) {
+			int greatestSon = son;
+			E greatestSonValue = array.get(son);
+			int lastSon = Math.min(son + arity, size);
+			for (++son; son < lastSon; ++son) {
+				E sonValue = array.get(son);
+				if (comparator.compare(sonValue, greatestSonValue) > 0) {
+					greatestSon = son;
+					greatestSonValue = sonValue;
+				}
+			}
+			if (comparator.compare(element, greatestSonValue) >= 0)
+				break;
+			set(greatestSonValue, i);
+			i = greatestSon;
+		}
+		set(element, i);
+	}
+
+	private void set(E element, int index) {
+		array.set(index, element);
+		map.put(element, index);
+	}
+
+	private int parent(int i) {
+		return (i - 1) / arity;
+	}
+
+	private int firstSon(int i) {
+		return i * arity + 1;
+	}
+}
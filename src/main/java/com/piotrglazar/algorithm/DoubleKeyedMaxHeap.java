@@ -0,0 +1,284 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Max heap ordered by a double key extracted from every element. The key is extracted once, when the element is added
+ * or its key changes, and cached in a primitive array parallel to the elements, so sifting compares primitives. Keys
+ * are ordered as by {@link Double#compare(double, double)}.
+ * <p>
+ * Elements are located through a map to slots which do not change while the element is in the heap, and positions of
+ * slots are kept in int arrays. {@link Object#hashCode()} and {@link Object#equals(Object)} are therefore called only
+ * when an element is added, looked up or removed, and never while sifting. Like {@link MaxHeap}, duplicates are not
+ * supported.
+ */
+public class DoubleKeyedMaxHeap<E> extends AbstractHeap<E> {
+
+	private final ToDoubleFunction<? super E> keyExtractor;
+
+	private Object[] elements = new Object[16];
+
+	private double[] keys = new double[16];
+
+	/**
+	 * Slots of elements in heap order; entries from heapSize on are free slots.
+	 */
+	private int[] slots = identity(16);
+
+	private int[] positions = identity(16);
+
+	private final Map<E, Integer> map = new HashMap<>();
+
+	private int heapSize = 0;
+
+	public DoubleKeyedMaxHeap(ToDoubleFunction<? super E> keyExtractor) {
+		super(Comparator.comparingDouble(checkNotNull(keyExtractor, "Null key extractor")));
+		this.keyExtractor = keyExtractor;
+	}
+
+	@Override
+	public int size() {
+		return heapSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return heapSize == 0;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return map.containsKey(o);
+	}
+
+	/**
+	 * Returns cached key of element present in heap.
+	 */
+	public double key(E e) {
+		Integer slot = map.get(e);
+		checkState(slot != null, "Element %s should be present in heap", e);
+		return keys[positions[slot]];
+	}
+
+	/**
+	 * Returns elements in internal (heap) order.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < heapSize;
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return element(next++);
+			}
+		};
+	}
+
+	@Override
+	public boolean offer(E e) {
+		ensureCapacity(heapSize + 1);
+		double key = keyExtractor.applyAsDouble(e);
+		checkState(map.putIfAbsent(e, slots[heapSize]) == null, "Element %s is already present in heap", e);
+		elements[heapSize] = e;
+		keys[heapSize] = key;
+		siftUp(heapSize++);
+		return true;
+	}
+
+	/**
+	 * Extracts keys of all elements and restores heap bottom-up when the batch is at least as large as the heap. If an
+	 * element is rejected, the heap is left unchanged.
+	 */
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		checkArgument(c != null, "Null collection");
+		if (c.size() < heapSize)
+			return super.addAll(c);
+		for (E e : c)
+			checkState(!map.containsKey(e), "Element %s is already present in heap", e);
+		ensureCapacity(heapSize + c.size());
+		int oldSize = heapSize;
+		try {
+			for (E e : c) {
+				keys[heapSize] = keyExtractor.applyAsDouble(e);
+				elements[heapSize] = e;
+				checkState(map.putIfAbsent(e, slots[heapSize]) == null, "Element %s is added twice", e);
+				++heapSize;
+			}
+		} catch (RuntimeException ex) {
+			truncate(oldSize);
+			throw ex;
+		}
+		for (int i = (heapSize >>> 1) - 1; i >= 0; --i)
+			siftDown(i);
+		return !c.isEmpty();
+	}
+
+	@Override
+	public E poll() {
+		if (isEmpty())
+			return null;
+		E max = element(0);
+		removeAt(0);
+		return max;
+	}
+
+	@Override
+	public E peek() {
+		return isEmpty() ? null : element(0);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Integer slot = map.get(o);
+		if (slot == null)
+			return false;
+		removeAt(positions[slot]);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(elements, 0, heapSize, null);
+		map.clear();
+		heapSize = 0;
+	}
+
+	/**
+	 * Extracts the key again and restores heap in whichever direction it has moved.
+	 */
+	@Override
+	public void changeKey(E e) {
+		Integer slot = map.get(e);
+		checkState(slot != null, "Element %s should be present in heap", e);
+		int index = positions[slot];
+		double oldKey = keys[index];
+		double newKey = keyExtractor.applyAsDouble(e);
+		keys[index] = newKey;
+		if (Double.compare(newKey, oldKey) > 0)
+			siftUp(index);
+		else
+			siftDown(index);
+	}
+
+	private void removeAt(int i) {
+		map.remove(elements[i]);
+		--heapSize;
+		if (i == heapSize) {
+			elements[i] = null;
+			return;
+		}
+		double oldKey = keys[i];
+		int freed = slots[i];
+		move(heapSize, i);
+		slots[heapSize] = freed;
+		positions[freed] = heapSize;
+		elements[heapSize] = null;
+		if (Double.compare(keys[i], oldKey) > 0)
+			siftUp(i);
+		else
+			siftDown(i);
+	}
+
+	private void siftUp(int i) {
+		Object element = elements[i];
+		double key = keys[i];
+		int slot = slots[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (Double.compare(keys[parent], key) >= 0)
+				break;
+			move(parent, i);
+			i = parent;
+		}
+		place(element, key, slot, i);
+	}
+
+	private void siftDown(int i) {
+		Object element = elements[i];
+		double key = keys[i];
+		int slot = slots[i];
+		int half = heapSize >>> 1;
+		while (i < half) {
+			int son = (i << 1) + 1;
+			if (son + 1 < heapSize && Double.compare(keys[son + 1], keys[son]) > 0)
+				++son;
+			if (Double.compare(key, keys[son]) >= 0)
+				break;
+			move(son, i);
+			i = son;
+		}
+		place(element, key, slot, i);
+	}
+
+	private void move(int from, int to) {
+		place(elements[from], keys[from], slots[from], to);
+	}
+
+	private void place(Object element, double key, int slot, int i) {
+		elements[i] = element;
+		keys[i] = key;
+		slots[i] = slot;
+		positions[slot] = i;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E element(int i) {
+		return (E) elements[i];
+	}
+
+	/**
+	 * Drops elements appended after the given size, which were not sifted yet.
+	 */
+	private void truncate(int size) {
+		for (int i = size; i < heapSize; ++i) {
+			map.remove(elements[i]);
+			elements[i] = null;
+		}
+		heapSize = size;
+	}
+
+	private void ensureCapacity(int size) {
+		if (size > elements.length) {
+			int capacity = Math.max(size, elements.length << 1);
+			elements = Arrays.copyOf(elements, capacity);
+			keys = Arrays.copyOf(keys, capacity);
+			slots = extend(slots, capacity);
+			positions = extend(positions, capacity);
+		}
+	}
+
+	private static int[] identity(int size) {
+		return extend(new int[0], size);
+	}
+
+	/**
+	 * Copies the array and fills the new entries with their own indexes, which are new free slots.
+	 */
+	private static int[] extend(int[] array, int size) {
+		int[] extended = Arrays.copyOf(array, size);
+		for (int i = array.length; i < size; ++i)
+			extended[i] = i;
+		return extended;
+	}
+}
@@ -0,0 +1,167 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Sorts data larger than memory in ascending order. The input is cut into runs which fit the memory budget; every run
+ * is heap sorted and spilled to a temporary file through a large direct buffer as length-prefixed records. Runs are
+ * then merged with a {@link MaxHeap} of run cursors, read through memory-mapped windows: the cursor with the smallest
+ * head is the maximum, and after its head is consumed the cursor is advanced and restored with
+ * {@link MaxHeap#changeKey}. When there are more runs than the memory budget allows to read at once, they are merged
+ * in several passes.
+ * <p>
+ * The sort is not stable. Temporary files are deleted when sorting finishes.
+ */
+public class ExternalSort<E> {
+
+	/**
+	 * References and object headers of a buffered element, added to its serialized size.
+	 */
+	static final int ELEMENT_OVERHEAD = 16;
+
+	static final int MIN_WINDOW_BYTES = 64 << 10;
+
+	private final Comparator<? super E> comparator;
+
+	private final Serializer<E> serializer;
+
+	private final long memoryBudget;
+
+	private final Path temporaryDirectory;
+
+	private final int fanIn;
+
+	private final int windowBytes;
+
+	/**
+	 * Creates sort which buffers elements up to memoryBudget bytes (serialized size plus {@value #ELEMENT_OVERHEAD}
+	 * per element, so the serialized size should approximate the size in memory) and spills runs to temporary files in
+	 * the given directory. The same budget bounds the total size of the mapped windows of runs merged at once.
+	 */
+	public ExternalSort(Comparator<? super E> comparator, Serializer<E> serializer, long memoryBudget,
+			Path temporaryDirectory) {
+		checkArgument(comparator != null, "Null comparator");
+		checkArgument(serializer != null, "Null serializer");
+		checkArgument(memoryBudget >= 2 * MIN_WINDOW_BYTES, "Memory budget must be at least %s bytes, got %s",
+				2 * MIN_WINDOW_BYTES, memoryBudget);
+		checkArgument(temporaryDirectory != null, "Null temporary directory");
+		this.comparator = comparator;
+		this.serializer = serializer;
+		this.memoryBudget = memoryBudget;
+		this.temporaryDirectory = temporaryDirectory;
+		this.fanIn = (int) Math.min(1024, memoryBudget / MIN_WINDOW_BYTES);
+		this.windowBytes = (int) Math.min(Integer.MAX_VALUE, memoryBudget / fanIn);
+	}
+
+	/**
+	 * Passes all input elements to output in ascending order.
+	 */
+	public void sort(Iterator<? extends E> input, Consumer<? super E> output) throws IOException {
+		checkArgument(input != null, "Null input");
+		checkArgument(output != null, "Null output");
+		Path directory = Files.createTempDirectory(temporaryDirectory, "external-sort");
+		List<Path> runs = new ArrayList<>();
+		try {
+			List<E> buffer = new ArrayList<>();
+			while (input.hasNext()) {
+				long buffered = 0;
+				while (input.hasNext() && buffered < memoryBudget) {
+					E element = input.next();
+					buffered += serializer.size(element) + ELEMENT_OVERHEAD;
+					buffer.add(element);
+				}
+				Heaps.heapSortInPlace(buffer, comparator);
+				if (runs.isEmpty() && !input.hasNext()) {
+					buffer.forEach(output);
+					return;
+				}
+				runs.add(spill(buffer, directory, runs.size()));
+				buffer.clear();
+			}
+			int pass = 0;
+			while (runs.size() > fanIn) {
+				List<Path> merged = new ArrayList<>();
+				for (int from = 0; from < runs.size(); from += fanIn) {
+					List<Path> group = runs.subList(from, Math.min(from + fanIn, runs.size()));
+					Path run = directory.resolve("merge-" + pass + "-" + merged.size());
+					try (RecordWriter<E> writer = newRunWriter(run)) {
+						merge(group, writer::write);
+					} catch (UncheckedIOException e) {
+						throw e.getCause();
+					}
+					for (Path path : group)
+						Files.delete(path);
+					merged.add(run);
+				}
+				runs = merged;
+				++pass;
+			}
+			merge(runs, output);
+		} finally {
+			try (Stream<Path> leftovers = Files.list(directory)) {
+				for (Path path : (Iterable<Path>) leftovers::iterator)
+					Files.delete(path);
+			}
+			Files.delete(directory);
+		}
+	}
+
+	private Path spill(List<E> sorted, Path directory, int index) throws IOException {
+		Path run = directory.resolve("run-" + index);
+		try (RecordWriter<E> writer = newRunWriter(run)) {
+			for (E element : sorted)
+				writer.write(element);
+		}
+		return run;
+	}
+
+	private void merge(List<Path> runs, Consumer<? super E> output) throws IOException {
+		MaxHeap<RecordReader<E>> cursors = new MaxHeap<>((first, second) -> comparator.compare(second.head(),
+				first.head()));
+		try {
+			for (Path run : runs) {
+				RecordReader<E> reader = new RecordReader<>(FileChannel.open(run, StandardOpenOption.READ), 0,
+						serializer, windowBytes);
+				boolean added = false;
+				try {
+					if (reader.advance())
+						added = cursors.add(reader);
+				} finally {
+					if (!added)
+						reader.close();
+				}
+			}
+			while (!cursors.isEmpty()) {
+				RecordReader<E> smallest = cursors.peek();
+				output.accept(smallest.head());
+				if (smallest.advance()) {
+					cursors.changeKey(smallest);
+				} else {
+					cursors.poll();
+					smallest.close();
+				}
+			}
+		} finally {
+			for (RecordReader<E> reader : cursors)
+				reader.close();
+		}
+	}
+
+	private RecordWriter<E> newRunWriter(Path run) throws IOException {
+		return new RecordWriter<>(FileChannel.open(run, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE),
+				serializer);
+	}
+}
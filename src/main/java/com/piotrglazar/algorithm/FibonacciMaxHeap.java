@@ -0,0 +1,300 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fibonacci max heap (Fredman, Tarjan). {@link #offer}, {@link #meld} and increasing a key take O(1) amortized,
+ * {@link #poll} and {@link #remove(Object)} take O(log n) amortized. A changed key is recognized as decreased when the
+ * element has become smaller than one of its sons (there are O(log n) of them) or when it is the maximum; such element
+ * is re-inserted.
+ * <p>
+ * Like {@link MaxHeap}, elements are located through a map, so duplicates are not supported.
+ */
+public class FibonacciMaxHeap<E> extends AbstractHeap<E> {
+
+	private static final class Node<E> {
+
+		private final E element;
+
+		private Node<E> parent;
+
+		private Node<E> child;
+
+		private Node<E> left = this;
+
+		private Node<E> right = this;
+
+		private int degree;
+
+		private boolean marked;
+
+		private Node(E element) {
+			this.element = element;
+		}
+	}
+
+	private Node<E> max;
+
+	private Map<E, Node<E>> map = new HashMap<>();
+
+	public FibonacciMaxHeap(Comparator<? super E> comparator) {
+		super(comparator);
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return max == null;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return map.containsKey(o);
+	}
+
+	/**
+	 * Returns elements in no particular order.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return Collections.unmodifiableSet(map.keySet()).iterator();
+	}
+
+	@Override
+	public boolean offer(E e) {
+		checkState(!map.containsKey(e), "Element %s is already present in heap", e);
+		Node<E> node = new Node<>(e);
+		map.put(e, node);
+		insert(node);
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		if (isEmpty())
+			return null;
+		E element = max.element;
+		map.remove(element);
+		removeRoot(max);
+		return element;
+	}
+
+	@Override
+	public E peek() {
+		return isEmpty() ? null : max.element;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Node<E> node = map.remove(o);
+		if (node == null)
+			return false;
+		moveToRoots(node);
+		removeRoot(node);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		max = null;
+		map.clear();
+	}
+
+	@Override
+	public void changeKey(E e) {
+		Node<E> node = map.get(e);
+		checkState(node != null, "Element %s should be present in heap", e);
+		if (node == max || hasGreaterSon(node)) {
+			moveToRoots(node);
+			removeRoot(node);
+			node.child = null;
+			node.degree = 0;
+			node.left = node.right = node;
+			insert(node);
+		} else if (node.parent != null && comparator.compare(node.element, node.parent.element) > 0) {
+			moveToRoots(node);
+			if (comparator.compare(node.element, max.element) > 0)
+				max = node;
+		} else if (node.parent == null && comparator.compare(node.element, max.element) > 0) {
+			max = node;
+		}
+	}
+
+	/**
+	 * Moves all elements of other heap to this one, leaving the other heap empty. Joining the root lists takes O(1),
+	 * the element index of the smaller heap is merged into the larger one.
+	 */
+	public void meld(FibonacciMaxHeap<E> other) {
+		checkArgument(other != this, "Heap cannot be melded with itself");
+		if (other.isEmpty())
+			return;
+		Map<E, Node<E>> smaller = other.map.size() > map.size() ? map : other.map;
+		Map<E, Node<E>> larger = smaller == map ? other.map : map;
+		for (E e : smaller.keySet())
+			checkState(!larger.containsKey(e), "Element %s is present in both heaps", e);
+		other.map = smaller;
+		map = larger;
+		map.putAll(smaller);
+		Node<E> otherMax = other.max;
+		if (max == null) {
+			max = otherMax;
+		} else {
+			splice(max, otherMax);
+			if (comparator.compare(otherMax.element, max.element) > 0)
+				max = otherMax;
+		}
+		other.clear();
+	}
+
+	private void insert(Node<E> node) {
+		if (max == null) {
+			max = node;
+		} else {
+			splice(max, node);
+			if (comparator.compare(node.element, max.element) > 0)
+				max = node;
+		}
+	}
+
+	private boolean hasGreaterSon(Node<E> node) {
+		Node<E> son = node.child;
+		if (son == null)
+			return false;
+		do {
+			if (comparator.compare(son.element, node.element) > 0)
+				return true;
+			son = son.right;
+		} while (son != node.child);
+		return false;
+	}
+
+	/**
+	 * Cuts node from its parent (with cascading cuts) so that it becomes a root.
+	 */
+	private void moveToRoots(Node<E> node) {
+		Node<E> parent = node.parent;
+		if (parent == null)
+			return;
+		cut(node, parent);
+		while (parent.parent != null) {
+			if (!parent.marked) {
+				parent.marked = true;
+				break;
+			}
+			Node<E> grandParent = parent.parent;
+			cut(parent, grandParent);
+			parent = grandParent;
+		}
+	}
+
+	private void cut(Node<E> node, Node<E> parent) {
+		if (node.right == node) {
+			parent.child = null;
+		} else {
+			if (parent.child == node)
+				parent.child = node.right;
+			unlink(node);
+		}
+		--parent.degree;
+		node.parent = null;
+		node.marked = false;
+		splice(max, node);
+	}
+
+	/**
+	 * Removes node from the root list, moves its sons to the root list and consolidates the roots.
+	 */
+	private void removeRoot(Node<E> node) {
+		Node<E> son = node.child;
+		if (son != null) {
+			do {
+				son.parent = null;
+				son.marked = false;
+				son = son.right;
+			} while (son != node.child);
+			splice(node, son);
+		}
+		if (node.right == node) {
+			max = null;
+			return;
+		}
+		max = node.right;
+		unlink(node);
+		consolidate();
+	}
+
+	private void consolidate() {
+		List<Node<E>> roots = new ArrayList<>();
+		Node<E> root = max;
+		do {
+			roots.add(root);
+			root = root.right;
+		} while (root != max);
+
+		@SuppressWarnings("unchecked")
+		Node<E>[] byDegree = new Node[64];
+		for (Node<E> node : roots) {
+			int degree = node.degree;
+			while (byDegree[degree] != null) {
+				Node<E> other = byDegree[degree];
+				if (comparator.compare(other.element, node.element) > 0) {
+					Node<E> tmp = node;
+					node = other;
+					other = tmp;
+				}
+				makeSon(other, node);
+				byDegree[degree++] = null;
+			}
+			byDegree[degree] = node;
+		}
+
+		max = null;
+		for (Node<E> node : byDegree) {
+			if (node != null && (max == null || comparator.compare(node.element, max.element) > 0))
+				max = node;
+		}
+	}
+
+	private void makeSon(Node<E> son, Node<E> parent) {
+		unlink(son);
+		son.left = son.right = son;
+		son.parent = parent;
+		son.marked = false;
+		if (parent.child == null)
+			parent.child = son;
+		else
+			splice(parent.child, son);
+		++parent.degree;
+	}
+
+	/**
+	 * Joins two circular lists.
+	 */
+	private void splice(Node<E> first, Node<E> second) {
+		Node<E> firstRight = first.right;
+		Node<E> secondLeft = second.left;
+		first.right = second;
+		second.left = first;
+		secondLeft.right = firstRight;
+		firstRight.left = secondLeft;
+	}
+
+	private void unlink(Node<E> node) {
+		node.left.right = node.right;
+		node.right.left = node.left;
+		node.left = node.right = node;
+	}
+}
@@ -1,8 +1,51 @@
 package com.piotrglazar.algorithm;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Queue;
 
 public interface Heap<E> extends Queue<E> {
 
+	/**
+	 * Restores heap after the key of element present in heap has changed.
+	 */
 	void changeKey(E e);
+
+	/**
+	 * Restores heap after the keys of many elements have changed.
+	 */
+	default void changeKeys(Collection<? extends E> elements) {
+		for (E e : elements)
+			changeKey(e);
+	}
+
+	/**
+	 * Removes up to n greatest elements and returns them, greatest first.
+	 */
+	default List<E> pollBatch(int n) {
+		List<E> polled = new ArrayList<>(Math.min(n, size()));
+		drainTo(polled, n);
+		return polled;
+	}
+
+	/**
+	 * Removes all elements and adds them to the given collection, greatest first.
+	 */
+	default int drainTo(Collection<? super E> c) {
+		return drainTo(c, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Removes up to maxElements greatest elements and adds them to the given collection, greatest first.
+	 */
+	default int drainTo(Collection<? super E> c, int maxElements) {
+		int drained = 0;
+		E e;
+		while (drained < maxElements && (e = poll()) != null) {
+			c.add(e);
+			++drained;
+		}
+		return drained;
+	}
 }
@@ -0,0 +1,233 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Counters of the work done by a {@link MaxHeap}: comparator calls, swaps (moves of an element by one level) and a
+ * histogram of sift depths, all per operation type, plus an estimate of the memory taken by the heap's array and
+ * position index. Enabled with {@link MaxHeap#enableMetrics}; a heap without metrics does not count anything.
+ * <p>
+ * One instance should be attached to one heap. Like the heap, it is not thread safe; listeners are called on the
+ * thread doing the operation.
+ */
+public class HeapMetrics {
+
+	public enum Operation {
+		OFFER, POLL, REMOVE, CHANGE_KEY, ADD_ALL, CHANGE_KEYS, DRAIN, COMPACT
+	}
+
+	public interface Listener {
+
+		/**
+		 * Called after every completed operation with the work it has done and the resulting heap size.
+		 */
+		void operationCompleted(Operation operation, long comparisons, long swaps, int size);
+	}
+
+	/**
+	 * A sift cannot move an element by more levels than there are in a heap of at most 2^31 - 1 elements.
+	 */
+	private static final int MAX_DEPTH = 31;
+
+	private static final int OPERATIONS = Operation.values().length;
+
+	private final List<Listener> listeners = new ArrayList<>();
+
+	private final long[] operations = new long[OPERATIONS];
+
+	private final long[] comparisons = new long[OPERATIONS];
+
+	private final long[] swaps = new long[OPERATIONS];
+
+	private final long[][] siftDepths = new long[OPERATIONS][MAX_DEPTH + 1];
+
+	private long comparisonCount;
+
+	private long comparisonMark;
+
+	private long pendingSwaps;
+
+	private int size;
+
+	private int peakSize;
+
+	public void addListener(Listener listener) {
+		checkArgument(listener != null, "Null listener");
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+
+	public Snapshot snapshot() {
+		return new Snapshot(this);
+	}
+
+	/**
+	 * Zeroes all counters. Sizes are kept, as they describe the heap rather than the work done.
+	 */
+	public void reset() {
+		Arrays.fill(operations, 0);
+		Arrays.fill(comparisons, 0);
+		Arrays.fill(swaps, 0);
+		for (long[] histogram : siftDepths)
+			Arrays.fill(histogram, 0);
+		comparisonCount = comparisonMark = pendingSwaps = 0;
+	}
+
+	<E> Comparator<E> counting(final Comparator<E> comparator) {
+		return (first, second) -> {
+			++comparisonCount;
+			return comparator.compare(first, second);
+		};
+	}
+
+	void begin() {
+		comparisonMark = comparisonCount;
+		pendingSwaps = 0;
+	}
+
+	void sift(Operation operation, int depth) {
+		++siftDepths[operation.ordinal()][depth];
+		pendingSwaps += depth;
+	}
+
+	void complete(Operation operation, int heapSize) {
+		long operationComparisons = comparisonCount - comparisonMark;
+		int i = operation.ordinal();
+		++operations[i];
+		comparisons[i] += operationComparisons;
+		swaps[i] += pendingSwaps;
+		resized(heapSize);
+		for (Listener listener : listeners)
+			listener.operationCompleted(operation, operationComparisons, pendingSwaps, heapSize);
+	}
+
+	void resized(int heapSize) {
+		size = heapSize;
+		peakSize = Math.max(peakSize, heapSize);
+	}
+
+	/**
+	 * Immutable copy of the counters. Memory estimates assume a 64-bit JVM with compressed references (12-byte object
+	 * headers, 4-byte references, 8-byte alignment) and count only the structures owned by the heap, not the elements.
+	 * Neither the array nor the index shrinks, so they are sized for the peak size.
+	 */
+	public static final class Snapshot {
+
+		private final long[] operations;
+
+		private final long[] comparisons;
+
+		private final long[] swaps;
+
+		private final long[][] siftDepths;
+
+		private final int size;
+
+		private final int peakSize;
+
+		private Snapshot(HeapMetrics metrics) {
+			operations = metrics.operations.clone();
+			comparisons = metrics.comparisons.clone();
+			swaps = metrics.swaps.clone();
+			siftDepths = new long[OPERATIONS][];
+			for (int i = 0; i < OPERATIONS; ++i)
+				siftDepths[i] = metrics.siftDepths[i].clone();
+			size = metrics.size;
+			peakSize = metrics.peakSize;
+		}
+
+		public long operations(Operation operation) {
+			return operations[operation.ordinal()];
+		}
+
+		public long comparisons(Operation operation) {
+			return comparisons[operation.ordinal()];
+		}
+
+		public long comparisons() {
+			return sum(comparisons);
+		}
+
+		public long swaps(Operation operation) {
+			return swaps[operation.ordinal()];
+		}
+
+		public long swaps() {
+			return sum(swaps);
+		}
+
+		/**
+		 * Returns copy of the histogram: element d is the number of sifts which have moved an element by d levels.
+		 */
+		public long[] siftDepthHistogram(Operation operation) {
+			return siftDepths[operation.ordinal()].clone();
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public int peakSize() {
+			return peakSize;
+		}
+
+		/**
+		 * ArrayList with its backing array of peak size capacity; growth slack is not included.
+		 */
+		public long estimatedArrayBytes() {
+			return 24 + align(16 + 4L * peakSize);
+		}
+
+		/**
+		 * HashMap with its table, one 32-byte node per element and boxed positions outside of the Integer cache.
+		 */
+		public long estimatedIndexBytes() {
+			long table = peakSize == 0 ? 0 : align(16 + 4L * tableLength(peakSize));
+			return 48 + table + 32L * size + 16L * Math.max(0, size - 127);
+		}
+
+		public long estimatedFootprintBytes() {
+			return estimatedArrayBytes() + estimatedIndexBytes();
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder("HeapMetrics.Snapshot[size=").append(size)
+					.append(", peakSize=").append(peakSize)
+					.append(", estimatedFootprintBytes=").append(estimatedFootprintBytes());
+			for (Operation operation : Operation.values()) {
+				if (operations(operation) > 0)
+					builder.append(", ").append(operation).append("=[operations=").append(operations(operation))
+							.append(", comparisons=").append(comparisons(operation))
+							.append(", swaps=").append(swaps(operation)).append(']');
+			}
+			return builder.append(']').toString();
+		}
+
+		private static long sum(long[] counters) {
+			long sum = 0;
+			for (long counter : counters)
+				sum += counter;
+			return sum;
+		}
+
+		private static long tableLength(int entries) {
+			long length = 16;
+			while (length * 3 / 4 < entries)
+				length <<= 1;
+			return length;
+		}
+
+		private static long align(long bytes) {
+			return (bytes + 7) & ~7L;
+		}
+	}
+}
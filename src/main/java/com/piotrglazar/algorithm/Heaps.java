@@ -1,9 +1,16 @@
 package com.piotrglazar.algorithm;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-
-import com.google.common.collect.Lists;
+import java.util.RandomAccess;
+import java.util.stream.Collector;
 
 public class Heaps {
 
@@ -35,16 +42,218 @@ public class Heaps {
 		}
 	}
 
-	public static <E> List<E> heapSort(List<E> elements, Comparator<E> comparator) {
-		List<E> sorted = Lists.newLinkedList();
-		MaxHeap<E> heap = new MaxHeap<>(comparator);
-		heap.addAll(elements);
+	public static boolean isMaxHeap(int[] array) {
+		for (int son = 1; son < array.length; ++son) {
+			if (array[(son - 1) >>> 1] < array[son])
+				return false;
+		}
+		return true;
+	}
 
-		while (!heap.isEmpty()) {
-			E currentMax = heap.remove();
-			sorted.add(currentMax);
+	public static boolean isMaxHeap(long[] array) {
+		for (int son = 1; son < array.length; ++son) {
+			if (array[(son - 1) >>> 1] < array[son])
+				return false;
 		}
+		return true;
+	}
+
+	public static boolean isMaxHeap(double[] array) {
+		for (int son = 1; son < array.length; ++son) {
+			if (Double.compare(array[(son - 1) >>> 1], array[son]) < 0)
+				return false;
+		}
+		return true;
+	}
 
+	/**
+	 * Returns new list with elements sorted greatest first.
+	 */
+	public static <E> List<E> heapSort(List<E> elements, Comparator<E> comparator) {
+		List<E> sorted = new ArrayList<>(elements);
+		heapSortInPlace(sorted, Collections.reverseOrder(comparator));
 		return sorted;
 	}
+
+	/**
+	 * Returns iterator over elements, greatest first, which sorts them lazily: the elements are copied and heapified in
+	 * O(n), and taking k of them costs O(k log k) more, so consumers which stop early do not pay for a full sort.
+	 */
+	public static <E> Iterator<E> lazyHeapSort(Collection<? extends E> elements, Comparator<? super E> comparator) {
+		List<E> heap = new ArrayList<>(elements);
+		int size = heap.size();
+		for (int i = (size >>> 1) - 1; i >= 0; --i)
+			siftDown(heap, i, size, comparator);
+		return new SortedHeapIterator<>(heap, comparator);
+	}
+
+	/**
+	 * Sorts random access list in place in ascending order, like {@link Collections#sort(List, Comparator)}.
+	 */
+	public static <E> void heapSortInPlace(List<E> list, Comparator<? super E> comparator) {
+		checkArgument(list instanceof RandomAccess, "List must support random access");
+		int size = list.size();
+		for (int i = (size >>> 1) - 1; i >= 0; --i)
+			siftDown(list, i, size, comparator);
+		for (int last = size - 1; last > 0; --last) {
+			list.set(last, list.set(0, list.get(last)));
+			siftDown(list, 0, last, comparator);
+		}
+	}
+
+	/**
+	 * Sorts array in place in ascending order, like {@link Arrays#sort(Object[], Comparator)}.
+	 */
+	public static <E> void heapSort(E[] array, Comparator<? super E> comparator) {
+		heapSort(array, 0, array.length, comparator);
+	}
+
+	/**
+	 * Sorts array in place in ascending order.
+	 */
+	public static void heapSort(int[] array) {
+		heapSort(array, 0, array.length);
+	}
+
+	/**
+	 * Sorts array in place in ascending order.
+	 */
+	public static void heapSort(long[] array) {
+		heapSort(array, 0, array.length);
+	}
+
+	/**
+	 * Sorts array in ascending order by heap sorting partitions in parallel and merging them. Needs a buffer of the
+	 * array's size.
+	 */
+	public static <E> void parallelHeapSort(E[] array, Comparator<? super E> comparator) {
+		ParallelHeapSort.sort(array, comparator);
+	}
+
+	public static void parallelHeapSort(int[] array) {
+		ParallelHeapSort.sort(array);
+	}
+
+	public static void parallelHeapSort(long[] array) {
+		ParallelHeapSort.sort(array);
+	}
+
+	static <E> void heapSort(E[] array, int from, int to, Comparator<? super E> comparator) {
+		int size = to - from;
+		for (int i = (size >>> 1) - 1; i >= 0; --i)
+			siftDown(array, from, i, size, comparator);
+		for (int last = size - 1; last > 0; --last) {
+			E max = array[from];
+			array[from] = array[from + last];
+			array[from + last] = max;
+			siftDown(array, from, 0, last, comparator);
+		}
+	}
+
+	static void heapSort(int[] array, int from, int to) {
+		int size = to - from;
+		for (int i = (size >>> 1) - 1; i >= 0; --i)
+			siftDown(array, from, i, size);
+		for (int last = size - 1; last > 0; --last) {
+			int max = array[from];
+			array[from] = array[from + last];
+			array[from + last] = max;
+			siftDown(array, from, 0, last);
+		}
+	}
+
+	static void heapSort(long[] array, int from, int to) {
+		int size = to - from;
+		for (int i = (size >>> 1) - 1; i >= 0; --i)
+			siftDown(array, from, i, size);
+		for (int last = size - 1; last > 0; --last) {
+			long max = array[from];
+			array[from] = array[from + last];
+			array[from + last] = max;
+			siftDown(array, from, 0, last);
+		}
+	}
+
+	private static <E> void siftDown(List<E> list, int i, int size, Comparator<? super E> comparator) {
+		E element = list.get(i);
+		int half = size >>> 1;
+		while (i < half) {
+			int son = (i << 1) + 1;
+			E sonValue = list.get(son);
+			if (son + 1 < size) {
+				E rightSonValue = list.get(son + 1);
+				if (comparator.compare(rightSonValue, sonValue) > 0) {
+					++son;
+					sonValue = rightSonValue;
+				}
+			}
+			if (comparator.compare(element, sonValue) >= 0)
+				break;
+			list.set(i, sonValue);
+			i = son;
+		}
+		list.set(i, element);
+	}
+
+	private static <E> void siftDown(E[] array, int offset, int i, int size, Comparator<? super E> comparator) {
+		E element = array[offset + i];
+		int half = size >>> 1;
+		while (i < half) {
+			int son = (i << 1) + 1;
+			if (son + 1 < size && comparator.compare(array[offset + son + 1], array[offset + son]) > 0)
+				++son;
+			if (comparator.compare(element, array[offset + son]) >= 0)
+				break;
+			array[offset + i] = array[offset + son];
+			i = son;
+		}
+		array[offset + i] = element;
+	}
+
+	private static void siftDown(int[] array, int offset, int i, int size) {
+		int element = array[offset + i];
+		int half = size >>> 1;
+		while (i < half) {
+			int son = (i << 1) + 1;
+			if (son + 1 < size && array[offset + son + 1] > array[offset + son])
+				++son;
+			if (element >= array[offset + son])
+				break;
+			array[offset + i] = array[offset + son];
+			i = son;
+		}
+		array[offset + i] = element;
+	}
+
+	private static void siftDown(long[] array, int offset, int i, int size) {
+		long element = array[offset + i];
+		int half = size >>> 1;
+		while (i < half) {
+			int son = (i << 1) + 1;
+			if (son + 1 < size && array[offset + son + 1] > array[offset + son])
+				++son;
+			if (element >= array[offset + son])
+				break;
+			array[offset + i] = array[offset + son];
+			i = son;
+		}
+		array[offset + i] = element;
+	}
+
+	/**
+	 * Returns the k greatest elements, greatest first, keeping no more than k elements in memory.
+	 */
+	public static <E> List<E> topK(Iterable<? extends E> elements, int k, Comparator<? super E> comparator) {
+		TopK<E> topK = new TopK<>(k, comparator);
+		for (E e : elements)
+			topK.offer(e);
+		return topK.toSortedList();
+	}
+
+	/**
+	 * Collects the k greatest elements of a stream, greatest first. Partial results of parallel streams are merged.
+	 */
+	public static <E> Collector<E, ?, List<E>> toTopK(int k, Comparator<? super E> comparator) {
+		return Collector.of(() -> new TopK<E>(k, comparator), TopK::offer, TopK::merge, TopK::toSortedList);
+	}
 }
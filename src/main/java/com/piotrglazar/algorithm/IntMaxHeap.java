@@ -0,0 +1,189 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Max heap of int keys, each attached to a non-negative int id. Keys and ids are kept in parallel arrays in heap order
+ * and the position of every id is kept in an array indexed by id, so no operation boxes or allocates (apart from
+ * growing the arrays).
+ */
+public class IntMaxHeap {
+
+	private static final int ABSENT = -1;
+
+	private int[] keys;
+
+	private int[] ids;
+
+	private int[] positions;
+
+	private int heapSize = 0;
+
+	public IntMaxHeap() {
+		this(16);
+	}
+
+	public IntMaxHeap(int capacity) {
+		checkArgument(capacity > 0, "Capacity must be positive, got %s", capacity);
+		keys = new int[capacity];
+		ids = new int[capacity];
+		positions = new int[capacity];
+		Arrays.fill(positions, ABSENT);
+	}
+
+	public int size() {
+		return heapSize;
+	}
+
+	public boolean isEmpty() {
+		return heapSize == 0;
+	}
+
+	public boolean contains(int id) {
+		return id >= 0 && id < positions.length && positions[id] != ABSENT;
+	}
+
+	public void add(int id, int key) {
+		checkArgument(id >= 0 && id < Integer.MAX_VALUE, "Id must be in [0, %s), got %s", Integer.MAX_VALUE, id);
+		checkState(!contains(id), "Id %s is already present in heap", id);
+		ensureCapacity(heapSize + 1, id + 1);
+		keys[heapSize] = key;
+		ids[heapSize] = id;
+		positions[id] = heapSize;
+		siftUp(heapSize++);
+	}
+
+	public int key(int id) {
+		return keys[position(id)];
+	}
+
+	public int peekId() {
+		checkNotEmpty();
+		return ids[0];
+	}
+
+	public int peekKey() {
+		checkNotEmpty();
+		return keys[0];
+	}
+
+	/**
+	 * Removes the element with the greatest key and returns its id.
+	 */
+	public int poll() {
+		checkNotEmpty();
+		int max = ids[0];
+		removeAt(0);
+		return max;
+	}
+
+	public void changeKey(int id, int newKey) {
+		int i = position(id);
+		int oldKey = keys[i];
+		keys[i] = newKey;
+		if (newKey > oldKey)
+			siftUp(i);
+		else
+			siftDown(i);
+	}
+
+	public boolean remove(int id) {
+		if (!contains(id))
+			return false;
+		removeAt(positions[id]);
+		return true;
+	}
+
+	public void clear() {
+		for (int i = 0; i < heapSize; ++i)
+			positions[ids[i]] = ABSENT;
+		heapSize = 0;
+	}
+
+	/**
+	 * Returns copy of keys in internal (heap) order.
+	 */
+	public int[] toKeyArray() {
+		return Arrays.copyOf(keys, heapSize);
+	}
+
+	private void removeAt(int i) {
+		positions[ids[i]] = ABSENT;
+		--heapSize;
+		if (i == heapSize)
+			return;
+		int oldKey = keys[i];
+		move(heapSize, i);
+		if (keys[i] > oldKey)
+			siftUp(i);
+		else
+			siftDown(i);
+	}
+
+	private void siftUp(int i) {
+		int key = keys[i];
+		int id = ids[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (keys[parent] >= key)
+				break;
+			move(parent, i);
+			i = parent;
+		}
+		keys[i] = key;
+		ids[i] = id;
+		positions[id] = i;
+	}
+
+	private void siftDown(int i) {
+		int key = keys[i];
+		int id = ids[i];
+		int half = heapSize >>> 1;
+		while (i < half) {
+			int son = (i << 1) + 1;
+			if (son + 1 < heapSize && keys[son + 1] > keys[son])
+				++son;
+			if (key >= keys[son])
+				break;
+			move(son, i);
+			i = son;
+		}
+		keys[i] = key;
+		ids[i] = id;
+		positions[id] = i;
+	}
+
+	private void move(int from, int to) {
+		keys[to] = keys[from];
+		ids[to] = ids[from];
+		positions[ids[to]] = to;
+	}
+
+	private int position(int id) {
+		checkState(contains(id), "Id %s should be present in heap", id);
+		return positions[id];
+	}
+
+	private void checkNotEmpty() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+	}
+
+	private void ensureCapacity(int size, int idBound) {
+		if (size > keys.length) {
+			int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(size, (long) keys.length << 1));
+			keys = Arrays.copyOf(keys, capacity);
+			ids = Arrays.copyOf(ids, capacity);
+		}
+		if (idBound > positions.length) {
+			int oldLength = positions.length;
+			int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(idBound, (long) oldLength << 1));
+			positions = Arrays.copyOf(positions, capacity);
+			Arrays.fill(positions, oldLength, positions.length, ABSENT);
+		}
+	}
+}
@@ -0,0 +1,297 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Leftist max heap: a binary tree in which the rank (length of the right spine) of every left son is not smaller than
+ * the rank of the right son, so the right spine is O(log n) long. {@link #meld}, {@link #offer}, {@link #poll},
+ * {@link #remove(Object)} and {@link #changeKey} all merge along right spines in O(log n) worst case.
+ * <p>
+ * Elements are located through an index shared by all heaps created with {@link #newSibling()}. Which heap a node
+ * belongs to is tracked with union-find, so melding siblings never copies the index. Melding heaps which are not
+ * siblings moves the smaller heap's entries to the larger heap's index, which the melded heap then uses, so it leaves
+ * its previous sibling family if it was the smaller one. Like {@link MaxHeap}, duplicates are not supported; an
+ * element can be present in only one heap of a sibling family.
+ */
+public class LeftistMaxHeap<E> extends AbstractHeap<E> {
+
+	private static final class Owner {
+
+		private Owner forward;
+
+		private Owner find() {
+			Owner root = this;
+			while (root.forward != null)
+				root = root.forward;
+			Owner current = this;
+			while (current != root) {
+				Owner next = current.forward;
+				current.forward = root;
+				current = next;
+			}
+			return root;
+		}
+	}
+
+	private static final class Node<E> {
+
+		private final E element;
+
+		private Node<E> left;
+
+		private Node<E> right;
+
+		private Node<E> parent;
+
+		private int rank = 1;
+
+		private Owner owner;
+
+		private Node(E element, Owner owner) {
+			this.element = element;
+			this.owner = owner;
+		}
+	}
+
+	private Map<E, Node<E>> index;
+
+	private Owner owner = new Owner();
+
+	private Node<E> root;
+
+	private int heapSize = 0;
+
+	public LeftistMaxHeap(Comparator<? super E> comparator) {
+		this(comparator, new HashMap<E, Node<E>>());
+	}
+
+	private LeftistMaxHeap(Comparator<? super E> comparator, Map<E, Node<E>> index) {
+		super(comparator);
+		this.index = index;
+	}
+
+	/**
+	 * Creates empty heap sharing element index with this one, so that they can be melded in O(log n).
+	 */
+	public LeftistMaxHeap<E> newSibling() {
+		return new LeftistMaxHeap<>(comparator, index);
+	}
+
+	@Override
+	public int size() {
+		return heapSize;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return node(o) != null;
+	}
+
+	/**
+	 * Returns elements in preorder.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		final Deque<Node<E>> stack = new ArrayDeque<>();
+		if (root != null)
+			stack.push(root);
+		return new Iterator<E>() {
+
+			@Override
+			public boolean hasNext() {
+				return !stack.isEmpty();
+			}
+
+			@Override
+			public E next() {
+				if (stack.isEmpty())
+					throw new NoSuchElementException();
+				Node<E> node = stack.pop();
+				if (node.right != null)
+					stack.push(node.right);
+				if (node.left != null)
+					stack.push(node.left);
+				return node.element;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	@Override
+	public boolean offer(E e) {
+		checkState(!index.containsKey(e), "Element %s is already present in heap", e);
+		Node<E> node = new Node<>(e, owner);
+		index.put(e, node);
+		root = merge(root, node);
+		++heapSize;
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		if (isEmpty())
+			return null;
+		Node<E> max = root;
+		index.remove(max.element);
+		root = mergeSons(max);
+		--heapSize;
+		return max.element;
+	}
+
+	@Override
+	public E peek() {
+		return isEmpty() ? null : root.element;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Node<E> node = node(o);
+		if (node == null)
+			return false;
+		index.remove(o);
+		replace(node, mergeSons(node));
+		--heapSize;
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		for (E e : this)
+			index.remove(e);
+		root = null;
+		heapSize = 0;
+		owner = new Owner();
+	}
+
+	@Override
+	public void changeKey(E e) {
+		Node<E> node = node(e);
+		checkState(node != null, "Element %s should be present in heap", e);
+		if (isGreater(node.left, node) || isGreater(node.right, node)) {
+			replace(node, mergeSons(node));
+			node.left = node.right = null;
+			node.rank = 1;
+			root = merge(root, node);
+		} else if (node.parent != null && isGreater(node, node.parent)) {
+			replace(node, null);
+			root = merge(root, node);
+		}
+	}
+
+	/**
+	 * Moves all elements of other heap to this one in O(log n) if they are siblings, leaving the other heap empty.
+	 * Otherwise the entries of the smaller heap are moved between indexes first, in O(min(n, m)).
+	 */
+	public void meld(LeftistMaxHeap<E> other) {
+		checkArgument(other != this, "Heap cannot be melded with itself");
+		if (other.index != index) {
+			LeftistMaxHeap<E> smaller = heapSize < other.heapSize ? this : other;
+			Map<E, Node<E>> larger = smaller == this ? other.index : index;
+			for (E e : smaller)
+				checkState(!larger.containsKey(e), "Element %s is present in both heaps", e);
+			for (E e : smaller)
+				larger.put(e, smaller.index.remove(e));
+			index = larger;
+		}
+		other.owner.forward = owner;
+		root = merge(root, other.root);
+		heapSize += other.heapSize;
+		other.root = null;
+		other.heapSize = 0;
+		other.owner = new Owner();
+	}
+
+	private Node<E> node(Object o) {
+		Node<E> node = index.get(o);
+		if (node == null)
+			return null;
+		Owner nodeOwner = node.owner.find();
+		node.owner = nodeOwner;
+		return nodeOwner == owner ? node : null;
+	}
+
+	private boolean isGreater(Node<E> first, Node<E> second) {
+		return first != null && comparator.compare(first.element, second.element) > 0;
+	}
+
+	private Node<E> mergeSons(Node<E> node) {
+		if (node.left != null)
+			node.left.parent = null;
+		if (node.right != null)
+			node.right.parent = null;
+		return merge(node.left, node.right);
+	}
+
+	/**
+	 * Puts replacement (possibly null) in place of node and restores ranks on the path to the root.
+	 */
+	private void replace(Node<E> node, Node<E> replacement) {
+		Node<E> parent = node.parent;
+		node.parent = null;
+		if (replacement != null)
+			replacement.parent = parent;
+		if (parent == null) {
+			root = replacement;
+			return;
+		}
+		if (parent.left == node)
+			parent.left = replacement;
+		else
+			parent.right = replacement;
+		for (Node<E> current = parent; current != null; current = current.parent) {
+			if (rank(current.left) < rank(current.right)) {
+				Node<E> tmp = current.left;
+				current.left = current.right;
+				current.right = tmp;
+			}
+			int newRank = rank(current.right) + 1;
+			if (newRank == current.rank)
+				break;
+			current.rank = newRank;
+		}
+	}
+
+	private Node<E> merge(Node<E> first, Node<E> second) {
+		if (first == null)
+			return second;
+		if (second == null)
+			return first;
+		if (comparator.compare(second.element, first.element) > 0) {
+			Node<E> tmp = first;
+			first = second;
+			second = tmp;
+		}
+		first.right = merge(first.right, second);
+		first.right.parent = first;
+		if (rank(first.left) < rank(first.right)) {
+			Node<E> tmp = first.left;
+			first.left = first.right;
+			first.right = tmp;
+		}
+		first.rank = rank(first.right) + 1;
+		first.parent = null;
+		return first;
+	}
+
+	private static int rank(Node<?> node) {
+		return node == null ? 0 : node.rank;
+	}
+}
@@ -2,8 +2,17 @@ package com.piotrglazar.algorithm;
 
 import static com.google.common.base.Preconditions.checkState;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -11,22 +20,53 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import com.google.common.base.Preconditions;
+import com.piotrglazar.algorithm.HeapMetrics.Operation;
 
 public class MaxHeap<E> implements Heap<E> {
 
+	private static final int SNAPSHOT_MAGIC = 0x4d617848;
+
+	private static final int SNAPSHOT_VERSION = 1;
+
+	private static final int SNAPSHOT_HEADER_BYTES = 16;
+
+	private static final int SNAPSHOT_WINDOW_BYTES = 64 << 20;
+
 	private ArrayList<E> array = new ArrayList<E>();
 
+	private final Comparator<? super E> uncountedComparator;
+
+	/**
+	 * Comparator used for ordering; counts comparisons while metrics are enabled.
+	 */
 	private Comparator<? super E> comparator;
 
+	private HeapMetrics metrics;
+
 	private int heapSize = 0;
 
+	/**
+	 * Position of every element; null until first needed after {@link #restore}.
+	 */
 	private Map<E, Integer> map;
 
+	/**
+	 * Lazily removed elements, still kept in the array and in the index; null unless lazy deletion is enabled.
+	 */
+	private Set<Object> tombstones;
+
+	private double maxTombstoneFraction;
+
 	public MaxHeap(Comparator<? super E> comparator) {
 		map = new HashMap<>();
 		this.comparator = comparator;
+		this.uncountedComparator = comparator;
 	}
 
 	public static <F> MaxHeap<F> buildHeap(Collection<F> collection, Comparator<? super F> comparator) {
@@ -35,62 +75,307 @@ public class MaxHeap<E> implements Heap<E> {
 		return maxHeap;
 	}
 
+	/**
+	 * Reads heap written by {@link #snapshot} through memory-mapped windows, in one sequential pass. Elements are
+	 * neither compared nor hashed: the heap order is taken from the file, so the comparator must be equivalent to the
+	 * one of the saved heap, and the position index is built when first needed. Polling and adding do not need it.
+	 */
+	public static <F> MaxHeap<F> restore(Path file, Serializer<? extends F> serializer,
+			Comparator<? super F> comparator) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+				RecordReader<F> reader = new RecordReader<>(channel, SNAPSHOT_HEADER_BYTES, serializer,
+						SNAPSHOT_WINDOW_BYTES)) {
+			ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+			int read = 0;
+			while (header.hasRemaining() && read >= 0)
+				read = channel.read(header, header.position());
+			header.flip();
+			if (header.remaining() < SNAPSHOT_HEADER_BYTES || header.getInt() != SNAPSHOT_MAGIC)
+				throw new IOException("Not a heap snapshot: " + file);
+			int version = header.getInt();
+			if (version != SNAPSHOT_VERSION)
+				throw new IOException("Unsupported heap snapshot version " + version + ": " + file);
+			long size = header.getLong();
+			if (size < 0 || size > Integer.MAX_VALUE)
+				throw new IOException("Corrupted heap snapshot size " + size + ": " + file);
+			MaxHeap<F> maxHeap = new MaxHeap<F>(comparator);
+			maxHeap.map = null;
+			maxHeap.array.ensureCapacity((int) size);
+			while (maxHeap.array.size() < size && reader.advance())
+				maxHeap.array.add(reader.head());
+			if (maxHeap.array.size() < size)
+				throw new IOException("Truncated heap snapshot, read " + maxHeap.array.size() + " of " + size
+						+ " elements: " + file);
+			maxHeap.heapSize = (int) size;
+			return maxHeap;
+		}
+	}
+
+	/**
+	 * Writes elements in heap order as length-prefixed records after a header, to a temporary file which then
+	 * atomically replaces the given one, or is deleted if writing fails. The position index is not written, it is
+	 * implied by the order.
+	 */
+	public void snapshot(Path file, Serializer<? super E> serializer) throws IOException {
+		compact();
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try {
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+					StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+					RecordWriter<E> writer = new RecordWriter<>(channel, serializer)) {
+				ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES);
+				header.putInt(SNAPSHOT_MAGIC);
+				header.putInt(SNAPSHOT_VERSION);
+				header.putLong(heapSize);
+				header.flip();
+				while (header.hasRemaining())
+					channel.write(header);
+				for (E e : array)
+					writer.write(e);
+				writer.flush();
+				channel.force(false);
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+	}
+
+	/**
+	 * Starts reporting comparisons, swaps, sift depths and sizes to the given metrics. Without metrics the heap runs
+	 * with the plain comparator and skips all counting.
+	 */
+	public void enableMetrics(HeapMetrics metrics) {
+		Preconditions.checkArgument(metrics != null, "Null metrics");
+		this.metrics = metrics;
+		comparator = metrics.counting(uncountedComparator);
+		metrics.resized(heapSize);
+	}
+
+	public void disableMetrics() {
+		metrics = null;
+		comparator = uncountedComparator;
+	}
+
+	/**
+	 * Returns enabled metrics or null.
+	 */
+	public HeapMetrics metrics() {
+		return metrics;
+	}
+
+	/**
+	 * Makes {@link #remove(Object)} only mark the element as removed, in O(1). Marked elements are skipped by poll and
+	 * peek, and once they make up more than the given fraction of the array, all of them are dropped and the heap is
+	 * rebuilt bottom-up in O(n). Iterating, bulk updates and snapshots drop them first as well.
+	 * <p>
+	 * A removed element stays in the array until it is dropped, so unlike with eager removal, its key must not be
+	 * changed after {@link #remove(Object)}; doing so silently breaks the heap order.
+	 */
+	public void enableLazyDeletion(double maxTombstoneFraction) {
+		Preconditions.checkArgument(maxTombstoneFraction > 0 && maxTombstoneFraction < 1,
+				"Tombstone fraction must be in (0, 1), got %s", maxTombstoneFraction);
+		this.maxTombstoneFraction = maxTombstoneFraction;
+		if (tombstones == null)
+			tombstones = new HashSet<>();
+	}
+
+	/**
+	 * Drops lazily removed elements and makes {@link #remove(Object)} remove elements immediately again.
+	 */
+	public void disableLazyDeletion() {
+		compact();
+		tombstones = null;
+	}
+
 	@Override
 	public int size() {
-		return heapSize;
+		return tombstones == null ? heapSize : heapSize - tombstones.size();
 	}
 
 	@Override
 	public boolean isEmpty() {
-		return heapSize == 0;
+		return size() == 0;
 	}
 
 	@Override
 	public boolean contains(Object o) {
-		return map.containsKey(o);
+		return index().containsKey(o) && !isTombstone(o);
 	}
 
 	@Override
 	public Iterator<E> iterator() {
+		compact();
 		return array.iterator();
 	}
 
+	/**
+	 * Returns elements greatest first without modifying the heap. Taking k elements costs O(k log k) comparisons. The
+	 * heap must not be modified during iteration.
+	 */
+	public Iterator<E> sortedIterator() {
+		compact();
+		return new SortedHeapIterator<>(array, uncountedComparator);
+	}
+
+	/**
+	 * Returns lazy stream of elements, greatest first, backed by {@link #sortedIterator()}.
+	 */
+	public Stream<E> sortedStream() {
+		return StreamSupport.stream(Spliterators.spliterator(sortedIterator(), size(),
+				Spliterator.ORDERED | Spliterator.SIZED), false);
+	}
+
 	@Override
 	public Object[] toArray() {
+		compact();
 		return array.toArray();
 	}
 
 	@Override
 	public <T> T[] toArray(T[] a) {
+		compact();
 		return array.toArray(a);
 	}
 
 	@Override
 	public boolean remove(Object o) {
-		if (!map.containsKey(o))
+		if (!contains(o))
 			return false;
+		beginOperation();
+		if (tombstones != null) {
+			tombstones.add(o);
+			completeOperation(Operation.REMOVE);
+			if (tombstones.size() > maxTombstoneFraction * heapSize)
+				compact();
+			return true;
+		}
 		int index = map.get(o);
+		recordSift(Operation.REMOVE, index, 1);
 		while (isNotRoot(index)) {
 			swapWithParent(index);
 			index = parent(index);
 		}
-		extractMax();
+		extractMax(Operation.REMOVE);
+		completeOperation(Operation.REMOVE);
 		return true;
 	}
 
 	@Override
 	public boolean containsAll(Collection<?> c) {
-		return map.keySet().containsAll(c);
+		for (Object o : c) {
+			if (!contains(o))
+				return false;
+		}
+		return true;
 	}
 
 	@Override
 	public boolean addAll(Collection<? extends E> c) {
 		Preconditions.checkArgument(c != null, "Null collection");
-		for (E e : c)
-			add(e);
+		if (c.size() >= heapSize) {
+			bulkAdd(c);
+		} else {
+			for (E e : c)
+				add(e);
+		}
 		return true;
 	}
 
+	/**
+	 * Appends all elements and restores the heap bottom-up (Floyd's method), which is O(n + m) instead of O(m log(n +
+	 * m)). The position index is rebuilt once at the end instead of being updated on every swap.
+	 */
+	private void bulkAdd(Collection<? extends E> c) {
+		beginOperation();
+		if (hasTombstones())
+			dropTombstones();
+		array.ensureCapacity(heapSize + c.size());
+		array.addAll(c);
+		heapSize = array.size();
+		heapify(Operation.ADD_ALL);
+		reindex();
+		completeOperation(Operation.ADD_ALL);
+	}
+
+	private void heapify(Operation operation) {
+		for (int i = parent(heapSize); i >= 1; --i)
+			recordSift(operation, i, siftDownUnindexed(i));
+	}
+
+	/**
+	 * Returns the final position of the sifted element.
+	 */
+	private int siftDownUnindexed(int i) {
+		E element = getElement(i);
+		int son;
+		while ((son = leftSon(i)) <= heapSize) {
+			if (son < heapSize && comparator.compare(getElement(son), getElement(son + 1)) < 0)
+				++son;
+			E sonValue = getElement(son);
+			if (comparator.compare(element, sonValue) >= 0)
+				break;
+			array.set(i - 1, sonValue);
+			i = son;
+		}
+		array.set(i - 1, element);
+		return i;
+	}
+
+	/**
+	 * Drops lazily removed elements from the array and rebuilds the heap bottom-up in O(n).
+	 */
+	private void compact() {
+		if (!hasTombstones())
+			return;
+		beginOperation();
+		dropTombstones();
+		heapify(Operation.COMPACT);
+		reindex();
+		completeOperation(Operation.COMPACT);
+	}
+
+	private void dropTombstones() {
+		array.removeIf(tombstones::contains);
+		heapSize = array.size();
+		tombstones.clear();
+	}
+
+	/**
+	 * Extracts lazily removed elements from the root, so that it holds the greatest present element.
+	 */
+	private void skipTombstones() {
+		if (!hasTombstones() || !tombstones.contains(getElement(1)))
+			return;
+		beginOperation();
+		while (tombstones.remove(getElement(1)))
+			extractMax(Operation.COMPACT);
+		completeOperation(Operation.COMPACT);
+	}
+
+	private boolean hasTombstones() {
+		return tombstones != null && !tombstones.isEmpty();
+	}
+
+	private boolean isTombstone(Object o) {
+		return tombstones != null && tombstones.contains(o);
+	}
+
+	private Map<E, Integer> index() {
+		if (map == null)
+			reindex();
+		return map;
+	}
+
+	private void reindex() {
+		map = new HashMap<>(Math.max(16, (int) (heapSize / 0.75f) + 1));
+		for (int i = 1; i <= heapSize; ++i)
+			map.put(getElement(i), i);
+	}
+
 	@Override
 	public boolean removeAll(Collection<?> c) {
 		Preconditions.checkArgument(c != null, "Null collection");
@@ -102,7 +387,8 @@ public class MaxHeap<E> implements Heap<E> {
 	@Override
 	public boolean retainAll(Collection<?> c) {
 		Preconditions.checkArgument(c != null, "Null collection");
-		Set<E> retainingElements = new HashSet<E>(map.keySet());
+		compact();
+		Set<E> retainingElements = new HashSet<E>(index().keySet());
 		retainingElements.retainAll(c);
 
 		clear();
@@ -115,14 +401,28 @@ public class MaxHeap<E> implements Heap<E> {
 	public void clear() {
 		array.clear();
 		heapSize = 0;
-		map.clear();
+		if (map != null)
+			map.clear();
+		if (tombstones != null)
+			tombstones.clear();
+		if (metrics != null)
+			metrics.resized(0);
 	}
 
 	@Override
 	public boolean add(E e) {
-		set(e, heapSize + 1);
-		++heapSize;
-		changeKey(e);
+		beginOperation();
+		if (isTombstone(e)) {
+			tombstones.remove(e);
+			int i = index().get(e);
+			set(e, i);
+			recordSift(Operation.OFFER, i, restore(e, i));
+		} else {
+			set(e, heapSize + 1);
+			++heapSize;
+			recordSift(Operation.OFFER, heapSize, restore(e, heapSize));
+		}
+		completeOperation(Operation.OFFER);
 		return true;
 	}
 
@@ -136,51 +436,52 @@ public class MaxHeap<E> implements Heap<E> {
 		if (isEmpty())
 			throw new NoSuchElementException();
 		else
-			return extractMax();
+			return pollMax();
+	}
+
+	private E pollMax() {
+		skipTombstones();
+		beginOperation();
+		E max = extractMax(Operation.POLL);
+		completeOperation(Operation.POLL);
+		return max;
 	}
 
-	private E extractMax() {
+	private E extractMax(Operation operation) {
 		E max = getElement(1);
-		map.remove(max);
-		E last = getElement(heapSize);
-		set(last, 1);
-		array.remove(heapSize - 1);
+		if (map != null)
+			map.remove(max);
+		E last = array.remove(heapSize - 1);
 		--heapSize;
-		restoreHeap(1);
+		if (heapSize > 0) {
+			set(last, 1);
+			recordSift(operation, 1, restoreHeap(1));
+		}
 		return max;
 	}
 
-	private void restoreHeap(int i) {
+	/**
+	 * Sifts the element at i down and returns its final position.
+	 */
+	private int restoreHeap(int i) {
 		int leftSon = leftSon(i);
 		int rightSon = rightSon(i);
 		int greatestSon = greatestSon(leftSon, rightSon);
 		if (greatestSon == 0)
-			return;
+			return i;
 		if (parentIsSmaller(getElement(greatestSon), greatestSon)) {
 			swapWithParent(greatestSon);
-			restoreHeap(greatestSon);
+			return restoreHeap(greatestSon);
 		}
+		return i;
 	}
 
 	private int greatestSon(int leftSon, int rightSon) {
-		E leftSonValue = (leftSon <= heapSize) ? getElement(leftSon) : null;
-		E rightSonValue = (rightSon <= heapSize) ? getElement(rightSon) : null;
-
-		if (leftSonValue != null) {
-			if (rightSonValue != null) {
-				switch (comparator.compare(leftSonValue, rightSonValue)) {
-				case -1:
-					return rightSon;
-				case 0:
-					return leftSon;
-				case 1:
-					return leftSon;
-				}
-			} else {
-				return leftSon;
-			}
-		}
-		return 0;
+		if (leftSon > heapSize)
+			return 0;
+		if (rightSon > heapSize)
+			return leftSon;
+		return comparator.compare(getElement(leftSon), getElement(rightSon)) < 0 ? rightSon : leftSon;
 	}
 
 	private int rightSon(int i) {
@@ -196,13 +497,14 @@ public class MaxHeap<E> implements Heap<E> {
 		if (isEmpty())
 			return null;
 		else
-			return extractMax();
+			return pollMax();
 	}
 
 	@Override
 	public E element() {
 		if (isEmpty())
 			throw new NoSuchElementException();
+		skipTombstones();
 		return (E) array.get(0);
 	}
 
@@ -210,20 +512,91 @@ public class MaxHeap<E> implements Heap<E> {
 	public E peek() {
 		if (isEmpty())
 			return null;
-		else
-			return (E) array.get(0);
+		skipTombstones();
+		return (E) array.get(0);
 	}
 
+	/**
+	 * Restores heap after the key of element has either increased or decreased.
+	 */
 	@Override
 	public void changeKey(E e) {
-		checkState(map.containsKey(e), "Element %s should be present in heap", e);
+		checkState(contains(e), "Element %s should be present in heap", e);
+		beginOperation();
 		int i = map.get(e);
-		while (isNotRoot(i) && parentIsSmaller(e, i)) {
-			swapWithParent(i);
-			i = parent(i);
+		recordSift(Operation.CHANGE_KEY, i, restore(e, i));
+		completeOperation(Operation.CHANGE_KEY);
+	}
+
+	/**
+	 * Sifts the element at i up or down and returns its final position.
+	 */
+	private int restore(E e, int i) {
+		if (isNotRoot(i) && parentIsSmaller(e, i)) {
+			do {
+				swapWithParent(i);
+				i = parent(i);
+			} while (isNotRoot(i) && parentIsSmaller(e, i));
+			return i;
+		} else {
+			return restoreHeap(i);
+		}
+	}
+
+	/**
+	 * Restores heap after the keys of many elements have changed. When the batch is large compared to the heap, the
+	 * whole heap is rebuilt bottom-up in O(n) instead of paying O(log n) per element.
+	 */
+	@Override
+	public void changeKeys(Collection<? extends E> elements) {
+		Preconditions.checkArgument(elements != null, "Null collection");
+		for (E e : elements)
+			checkState(contains(e), "Element %s should be present in heap", e);
+		if (elements.size() * log2(heapSize) < heapSize) {
+			for (E e : elements)
+				changeKey(e);
+		} else {
+			beginOperation();
+			heapify(Operation.CHANGE_KEYS);
+			reindex();
+			completeOperation(Operation.CHANGE_KEYS);
 		}
 	}
 
+	@Override
+	public int drainTo(Collection<? super E> c, int maxElements) {
+		Preconditions.checkArgument(c != null, "Null collection");
+		if (maxElements < size())
+			return Heap.super.drainTo(c, maxElements);
+		compact();
+		int drained = heapSize;
+		beginOperation();
+		array.sort(Collections.reverseOrder(comparator));
+		c.addAll(array);
+		clear();
+		completeOperation(Operation.DRAIN);
+		return drained;
+	}
+
+	private void beginOperation() {
+		if (metrics != null)
+			metrics.begin();
+	}
+
+	private void recordSift(Operation operation, int from, int to) {
+		if (metrics != null)
+			metrics.sift(operation, Math.abs(log2(from) - log2(to)));
+	}
+
+	private void completeOperation(Operation operation) {
+		if (metrics != null)
+			metrics.complete(operation, heapSize);
+	}
+
+	private static int log2(int n) {
+		return 31 - Integer.numberOfLeadingZeros(Math.max(n, 1));
+	}
+
 	private boolean isNotRoot(int i) {
 		return i > 1;
 	}
@@ -241,7 +614,8 @@ public class MaxHeap<E> implements Heap<E> {
 			array.set(index - 1, element);
 		else
 			array.add(element);
-		map.put(element, index);
+		if (map != null)
+			map.put(element, index);
 	}
 
 	private boolean parentIsSmaller(E element, int elementIndex) {
@@ -0,0 +1,273 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Double-ended heap (Atkinson, Sack, Santoro, Strothotte: "Min-max heaps and generalized priority queues") in a single
+ * array: elements on even levels are not greater than their descendants and elements on odd levels are not smaller.
+ * The minimum is the root and the maximum is one of its sons, so both ends are available in O(1) and removed in
+ * O(log n). As a {@link Heap}, {@link #peek()} and {@link #poll()} return the maximum.
+ * <p>
+ * Like {@link MaxHeap}, elements are located through a map, so duplicates are not supported.
+ */
+public class MinMaxHeap<E> extends AbstractHeap<E> {
+
+	private final ArrayList<E> array = new ArrayList<>();
+
+	private final Map<E, Integer> map = new HashMap<>();
+
+	public MinMaxHeap(Comparator<? super E> comparator) {
+		super(comparator);
+	}
+
+	@Override
+	public int size() {
+		return array.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return array.isEmpty();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return map.containsKey(o);
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return Collections.unmodifiableList(array).iterator();
+	}
+
+	@Override
+	public Object[] toArray() {
+		return array.toArray();
+	}
+
+	@Override
+	public <T> T[] toArray(T[] a) {
+		return array.toArray(a);
+	}
+
+	@Override
+	public boolean offer(E e) {
+		checkState(!map.containsKey(e), "Element %s is already present in heap", e);
+		array.add(e);
+		map.put(e, array.size() - 1);
+		pushUp(array.size() - 1);
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		return pollMax();
+	}
+
+	@Override
+	public E peek() {
+		return peekMax();
+	}
+
+	public E peekMax() {
+		return isEmpty() ? null : array.get(maxIndex());
+	}
+
+	public E peekMin() {
+		return isEmpty() ? null : array.get(0);
+	}
+
+	public E pollMax() {
+		return isEmpty() ? null : removeAt(maxIndex());
+	}
+
+	public E pollMin() {
+		return isEmpty() ? null : removeAt(0);
+	}
+
+	public E elementMin() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return array.get(0);
+	}
+
+	public E removeMin() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return removeAt(0);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Integer index = map.get(o);
+		if (index == null)
+			return false;
+		removeAt(index);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		array.clear();
+		map.clear();
+	}
+
+	/**
+	 * Restores heap after the key of element has changed in either direction. A changed element may violate order
+	 * with both ancestors and descendants on different level types, so it is taken out and put back, O(log n).
+	 */
+	@Override
+	public void changeKey(E e) {
+		Integer index = map.get(e);
+		checkState(index != null, "Element %s should be present in heap", e);
+		removeAt(index);
+		offer(e);
+	}
+
+	private int maxIndex() {
+		switch (array.size()) {
+		case 1:
+			return 0;
+		case 2:
+			return 1;
+		default:
+			return greater(1, 2) ? 1 : 2;
+		}
+	}
+
+	private E removeAt(int i) {
+		E removed = array.get(i);
+		map.remove(removed);
+		E last = array.remove(array.size() - 1);
+		if (i < array.size()) {
+			set(last, i);
+			fillHole(i);
+		}
+		return removed;
+	}
+
+	/**
+	 * Restores order around i after the last element has been moved there. If it is more extreme than its parent, it
+	 * goes up from the parent and the parent goes down from i, otherwise it first goes down and only then up.
+	 */
+	private void fillHole(int i) {
+		boolean minLevel = isMinLevel(i);
+		if (i > 0 && isMoreExtreme(i, parent(i), minLevel)) {
+			int parent = parent(i);
+			swap(i, parent);
+			pushUp(parent, minLevel);
+			pushDown(i);
+		} else if (!pushDown(i)) {
+			pushUp(i, !minLevel);
+		}
+	}
+
+	private void pushUp(int i) {
+		if (i == 0)
+			return;
+		int parent = parent(i);
+		if (isMinLevel(i)) {
+			if (greater(i, parent)) {
+				swap(i, parent);
+				pushUp(parent, true);
+			} else {
+				pushUp(i, false);
+			}
+		} else {
+			if (greater(parent, i)) {
+				swap(i, parent);
+				pushUp(parent, false);
+			} else {
+				pushUp(i, true);
+			}
+		}
+	}
+
+	/**
+	 * Moves element up through grandparents on levels of the same type.
+	 */
+	private void pushUp(int i, boolean maxLevel) {
+		while (i > 2) {
+			int grandParent = parent(parent(i));
+			if (!isMoreExtreme(i, grandParent, maxLevel))
+				return;
+			swap(i, grandParent);
+			i = grandParent;
+		}
+	}
+
+	/**
+	 * Returns true if the element at m has moved.
+	 */
+	private boolean pushDown(int m) {
+		boolean maxLevel = !isMinLevel(m);
+		boolean moved = false;
+		while (true) {
+			int extreme = extremeDescendant(m, maxLevel);
+			if (extreme < 0 || !isMoreExtreme(extreme, m, maxLevel))
+				return moved;
+			swap(extreme, m);
+			moved = true;
+			if (parent(extreme) == m)
+				return true;
+			int parent = parent(extreme);
+			if (isMoreExtreme(extreme, parent, !maxLevel))
+				swap(extreme, parent);
+			m = extreme;
+		}
+	}
+
+	/**
+	 * Returns the greatest (for max level) or smallest son or grandson of i, or -1 for a leaf.
+	 */
+	private int extremeDescendant(int i, boolean maxLevel) {
+		int size = array.size();
+		int firstSon = 2 * i + 1;
+		if (firstSon >= size)
+			return -1;
+		int extreme = firstSon;
+		if (firstSon + 1 < size && isMoreExtreme(firstSon + 1, extreme, maxLevel))
+			extreme = firstSon + 1;
+		int lastGrandSon = Math.min(2 * firstSon + 4, size - 1);
+		for (int grandSon = 2 * firstSon + 1; grandSon <= lastGrandSon; ++grandSon) {
+			if (isMoreExtreme(grandSon, extreme, maxLevel))
+				extreme = grandSon;
+		}
+		return extreme;
+	}
+
+	private boolean isMoreExtreme(int i, int j, boolean maxLevel) {
+		return maxLevel ? greater(i, j) : greater(j, i);
+	}
+
+	private boolean greater(int i, int j) {
+		return comparator.compare(array.get(i), array.get(j)) > 0;
+	}
+
+	private void swap(int i, int j) {
+		E first = array.get(i);
+		set(array.get(j), i);
+		set(first, j);
+	}
+
+	private void set(E element, int index) {
+		array.set(index, element);
+		map.put(element, index);
+	}
+
+	private static int parent(int i) {
+		return (i - 1) >>> 1;
+	}
+
+	private static boolean isMinLevel(int i) {
+		return (31 - Integer.numberOfLeadingZeros(i + 1)) % 2 == 0;
+	}
+}
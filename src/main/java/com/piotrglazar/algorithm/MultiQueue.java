@@ -0,0 +1,254 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe relaxed priority queue (Rihani, Sanders, Dementiev: "MultiQueues: Simple Relaxed Concurrent Priority
+ * Queues"). Elements are spread over independent {@link MaxHeap} shards, each behind its own lock. {@link #offer}
+ * inserts into a random shard, {@link #poll} looks at the tops of two random shards and takes the greater one.
+ * <p>
+ * {@link #poll} does not necessarily return the greatest element. With {@code k} shards the expected rank of the
+ * returned element (0 being the greatest) is O(k) and it is O(k log k) with high probability, so the shard count trades
+ * throughput against ordering quality. About two shards per consumer thread is a good default. With a single shard the
+ * queue is exact.
+ * <p>
+ * Like {@link MaxHeap}, elements are located through a map, so duplicates are not supported.
+ */
+public class MultiQueue<E> extends AbstractHeap<E> {
+
+	private static final class Shard<E> {
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		private final MaxHeap<E> heap;
+
+		/**
+		 * Top of the heap published for lock-free inspection by {@link MultiQueue#poll()}.
+		 */
+		private volatile E top;
+
+		private Shard(Comparator<? super E> comparator) {
+			heap = new MaxHeap<>(comparator);
+		}
+
+		private void publishTop() {
+			top = heap.peek();
+		}
+	}
+
+	private final Shard<E>[] shards;
+
+	private final ConcurrentMap<E, Shard<E>> map = new ConcurrentHashMap<>();
+
+	private final AtomicInteger heapSize = new AtomicInteger();
+
+	public MultiQueue(Comparator<? super E> comparator) {
+		this(2 * Runtime.getRuntime().availableProcessors(), comparator);
+	}
+
+	@SuppressWarnings("unchecked")
+	public MultiQueue(int shardCount, Comparator<? super E> comparator) {
+		super(comparator);
+		checkArgument(shardCount > 0, "Shard count must be positive, got %s", shardCount);
+		shards = new Shard[shardCount];
+		for (int i = 0; i < shardCount; ++i)
+			shards[i] = new Shard<>(comparator);
+	}
+
+	public int shardCount() {
+		return shards.length;
+	}
+
+	@Override
+	public int size() {
+		return heapSize.get();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return heapSize.get() == 0;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return map.containsKey(o);
+	}
+
+	@Override
+	public boolean offer(E e) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		while (true) {
+			Shard<E> shard = shards[random.nextInt(shards.length)];
+			if (shard.lock.tryLock()) {
+				try {
+					shard.heap.add(e);
+					map.put(e, shard);
+					shard.publishTop();
+				} finally {
+					shard.lock.unlock();
+				}
+				heapSize.incrementAndGet();
+				return true;
+			}
+		}
+	}
+
+	@Override
+	public E poll() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int misses = 0;
+		while (!isEmpty()) {
+			Shard<E> shard = betterOf(shards[random.nextInt(shards.length)], shards[random.nextInt(shards.length)]);
+			if (shard.top == null) {
+				if (++misses > shards.length)
+					return pollAnyShard();
+				continue;
+			}
+			if (shard.lock.tryLock()) {
+				try {
+					E max = shard.heap.poll();
+					if (max != null) {
+						removed(max, shard);
+						return max;
+					}
+				} finally {
+					shard.lock.unlock();
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the greatest of the shard tops, which may have already been taken by the time the caller looks at it.
+	 */
+	@Override
+	public E peek() {
+		E best = null;
+		for (Shard<E> shard : shards) {
+			E top = shard.top;
+			if (top != null && (best == null || comparator.compare(top, best) > 0))
+				best = top;
+		}
+		return best;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		while (true) {
+			Shard<E> shard = map.get(o);
+			if (shard == null)
+				return false;
+			shard.lock.lock();
+			try {
+				if (map.get(o) == shard) {
+					shard.heap.remove(o);
+					removed(o, shard);
+					return true;
+				}
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		for (Shard<E> shard : shards) {
+			shard.lock.lock();
+			try {
+				for (E e : shard.heap)
+					map.remove(e);
+				heapSize.addAndGet(-shard.heap.size());
+				shard.heap.clear();
+				shard.publishTop();
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public void changeKey(E e) {
+		while (true) {
+			Shard<E> shard = map.get(e);
+			checkState(shard != null, "Element %s should be present in heap", e);
+			shard.lock.lock();
+			try {
+				if (map.get(e) == shard) {
+					shard.heap.changeKey(e);
+					shard.publishTop();
+					return;
+				}
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Returns weakly consistent snapshot of elements, shard after shard.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		List<E> snapshot = new ArrayList<>();
+		for (Shard<E> shard : shards) {
+			shard.lock.lock();
+			try {
+				snapshot.addAll(shard.heap);
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+		return Collections.unmodifiableList(snapshot).iterator();
+	}
+
+	private Shard<E> betterOf(Shard<E> first, Shard<E> second) {
+		E firstTop = first.top;
+		E secondTop = second.top;
+		if (firstTop == null)
+			return second;
+		if (secondTop == null)
+			return first;
+		return comparator.compare(firstTop, secondTop) >= 0 ? first : second;
+	}
+
+	/**
+	 * Fallback for nearly empty queue, when random probing keeps hitting empty shards.
+	 */
+	private E pollAnyShard() {
+		for (Shard<E> shard : shards) {
+			if (shard.top == null)
+				continue;
+			shard.lock.lock();
+			try {
+				E max = shard.heap.poll();
+				if (max != null) {
+					removed(max, shard);
+					return max;
+				}
+			} finally {
+				shard.lock.unlock();
+			}
+		}
+		return null;
+	}
+
+	private void removed(Object e, Shard<E> shard) {
+		map.remove(e);
+		shard.publishTop();
+		heapSize.decrementAndGet();
+	}
+}
@@ -0,0 +1,285 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * Bounded max heap of long keys attached to int ids in [0, idCapacity), like {@link LongMaxHeap}, but stored outside of
+ * the Java heap: (key, id) records in heap order and the position of every id live in direct or memory-mapped byte
+ * buffers, so the garbage collector sees a few buffer objects regardless of the number of elements. Buffers are split
+ * into segments, so capacity is not limited by the 2GB size of a single buffer.
+ * <p>
+ * A mapped heap uses the file as backing store only, its content is not meant to be reopened.
+ */
+public class OffHeapLongMaxHeap implements Closeable {
+
+	private static final int RECORD_BYTES = 12;
+
+	private static final int ID_OFFSET = 8;
+
+	private static final int DEFAULT_RECORD_SEGMENT_SHIFT = 26;
+
+	private static final int DEFAULT_POSITION_SEGMENT_SHIFT = 28;
+
+	private final int capacity;
+
+	private final int idCapacity;
+
+	private final int recordSegmentShift;
+
+	private final int positionSegmentShift;
+
+	private final ByteBuffer[] records;
+
+	/**
+	 * Position + 1 of every id, so that zeroed memory means absent.
+	 */
+	private final ByteBuffer[] positions;
+
+	private final FileChannel channel;
+
+	private int heapSize = 0;
+
+	public static OffHeapLongMaxHeap allocateDirect(int capacity, int idCapacity) {
+		try {
+			return new OffHeapLongMaxHeap(capacity, idCapacity, DEFAULT_RECORD_SEGMENT_SHIFT,
+					DEFAULT_POSITION_SEGMENT_SHIFT, null);
+		} catch (IOException e) {
+			throw new AssertionError("Direct allocation does not do I/O", e);
+		}
+	}
+
+	/**
+	 * Creates heap backed by the given file, which is created or truncated.
+	 */
+	public static OffHeapLongMaxHeap mapped(Path file, int capacity, int idCapacity) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			return new OffHeapLongMaxHeap(capacity, idCapacity, DEFAULT_RECORD_SEGMENT_SHIFT,
+					DEFAULT_POSITION_SEGMENT_SHIFT, channel);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	OffHeapLongMaxHeap(int capacity, int idCapacity, int recordSegmentShift, int positionSegmentShift,
+			FileChannel channel) throws IOException {
+		checkArgument(capacity > 0, "Capacity must be positive, got %s", capacity);
+		checkArgument(idCapacity > 0, "Id capacity must be positive, got %s", idCapacity);
+		this.capacity = capacity;
+		this.idCapacity = idCapacity;
+		this.recordSegmentShift = recordSegmentShift;
+		this.positionSegmentShift = positionSegmentShift;
+		this.channel = channel;
+		records = allocate(capacity, recordSegmentShift, RECORD_BYTES, 0);
+		positions = allocate(idCapacity, positionSegmentShift, 4, (long) capacity * RECORD_BYTES);
+	}
+
+	public int capacity() {
+		return capacity;
+	}
+
+	public int idCapacity() {
+		return idCapacity;
+	}
+
+	public int size() {
+		return heapSize;
+	}
+
+	public boolean isEmpty() {
+		return heapSize == 0;
+	}
+
+	public boolean contains(int id) {
+		return id >= 0 && id < idCapacity && position(id) >= 0;
+	}
+
+	public void add(int id, long key) {
+		checkArgument(id >= 0 && id < idCapacity, "Id must be in [0, %s), got %s", idCapacity, id);
+		checkState(position(id) < 0, "Id %s is already present in heap", id);
+		checkState(heapSize < capacity, "Heap is full");
+		setRecord(heapSize, key, id);
+		siftUp(heapSize++);
+	}
+
+	public long key(int id) {
+		return keyAt(existingPosition(id));
+	}
+
+	public int peekId() {
+		checkNotEmpty();
+		return idAt(0);
+	}
+
+	public long peekKey() {
+		checkNotEmpty();
+		return keyAt(0);
+	}
+
+	/**
+	 * Removes the element with the greatest key and returns its id.
+	 */
+	public int poll() {
+		checkNotEmpty();
+		int max = idAt(0);
+		removeAt(0);
+		return max;
+	}
+
+	public void changeKey(int id, long newKey) {
+		int i = existingPosition(id);
+		long oldKey = keyAt(i);
+		setRecord(i, newKey, id);
+		if (newKey > oldKey)
+			siftUp(i);
+		else
+			siftDown(i);
+	}
+
+	public boolean remove(int id) {
+		if (!contains(id))
+			return false;
+		removeAt(position(id));
+		return true;
+	}
+
+	public void clear() {
+		for (int i = 0; i < heapSize; ++i)
+			setPosition(idAt(i), -1);
+		heapSize = 0;
+	}
+
+	/**
+	 * Returns copy of keys in internal (heap) order.
+	 */
+	public long[] toKeyArray() {
+		long[] keys = new long[heapSize];
+		for (int i = 0; i < heapSize; ++i)
+			keys[i] = keyAt(i);
+		return keys;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (channel != null)
+			channel.close();
+	}
+
+	private void removeAt(int i) {
+		setPosition(idAt(i), -1);
+		--heapSize;
+		if (i == heapSize)
+			return;
+		long oldKey = keyAt(i);
+		long lastKey = keyAt(heapSize);
+		setRecord(i, lastKey, idAt(heapSize));
+		if (lastKey > oldKey)
+			siftUp(i);
+		else
+			siftDown(i);
+	}
+
+	private void siftUp(int i) {
+		long key = keyAt(i);
+		int id = idAt(i);
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			long parentKey = keyAt(parent);
+			if (parentKey >= key)
+				break;
+			setRecord(i, parentKey, idAt(parent));
+			i = parent;
+		}
+		setRecord(i, key, id);
+	}
+
+	private void siftDown(int i) {
+		long key = keyAt(i);
+		int id = idAt(i);
+		int half = heapSize >>> 1;
+		while (i < half) {
+			int son = (i << 1) + 1;
+			long sonKey = keyAt(son);
+			if (son + 1 < heapSize) {
+				long rightSonKey = keyAt(son + 1);
+				if (rightSonKey > sonKey) {
+					++son;
+					sonKey = rightSonKey;
+				}
+			}
+			if (key >= sonKey)
+				break;
+			setRecord(i, sonKey, idAt(son));
+			i = son;
+		}
+		setRecord(i, key, id);
+	}
+
+	private long keyAt(int i) {
+		return records[i >>> recordSegmentShift].getLong(recordOffset(i));
+	}
+
+	private int idAt(int i) {
+		return records[i >>> recordSegmentShift].getInt(recordOffset(i) + ID_OFFSET);
+	}
+
+	private void setRecord(int i, long key, int id) {
+		ByteBuffer segment = records[i >>> recordSegmentShift];
+		int offset = recordOffset(i);
+		segment.putLong(offset, key);
+		segment.putInt(offset + ID_OFFSET, id);
+		setPosition(id, i);
+	}
+
+	private int recordOffset(int i) {
+		return (i & ((1 << recordSegmentShift) - 1)) * RECORD_BYTES;
+	}
+
+	private int position(int id) {
+		return positions[id >>> positionSegmentShift].getInt((id & ((1 << positionSegmentShift) - 1)) << 2) - 1;
+	}
+
+	private void setPosition(int id, int position) {
+		positions[id >>> positionSegmentShift].putInt((id & ((1 << positionSegmentShift) - 1)) << 2, position + 1);
+	}
+
+	private int existingPosition(int id) {
+		checkState(contains(id), "Id %s should be present in heap", id);
+		return position(id);
+	}
+
+	private void checkNotEmpty() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+	}
+
+	private ByteBuffer[] allocate(int count, int segmentShift, int bytesPerEntry, long fileOffset)
+			throws IOException {
+		int perSegment = 1 << segmentShift;
+		ByteBuffer[] segments = new ByteBuffer[(int) (((long) count + perSegment - 1) >>> segmentShift)];
+		for (int s = 0; s < segments.length; ++s) {
+			int entries = Math.min(perSegment, count - s * perSegment);
+			int bytes = entries * bytesPerEntry;
+			ByteBuffer segment;
+			if (channel == null)
+				segment = ByteBuffer.allocateDirect(bytes);
+			else
+				segment = channel.map(MapMode.READ_WRITE, fileOffset + (long) s * perSegment * bytesPerEntry, bytes);
+			segments[s] = segment.order(ByteOrder.nativeOrder());
+		}
+		return segments;
+	}
+}
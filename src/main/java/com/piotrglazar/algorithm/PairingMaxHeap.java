@@ -0,0 +1,230 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Pointer-based pairing max heap. {@link #offer}, {@link #meld} and {@link #increaseKey} take O(1), {@link #poll} and
+ * {@link #remove(Object)} take O(log n) amortized. {@link #changeKey} handles keys changed in either direction: a key
+ * is recognized as decreased when the element has become smaller than one of its sons, which costs O(number of sons)
+ * and a node may have up to O(n) sons; such element is re-inserted.
+ * <p>
+ * Like {@link MaxHeap}, elements are located through a map, so duplicates are not supported.
+ */
+public class PairingMaxHeap<E> extends AbstractHeap<E> {
+
+	private static final class Node<E> {
+
+		private final E element;
+
+		private Node<E> child;
+
+		private Node<E> next;
+
+		/**
+		 * Left sibling or parent for the leftmost son.
+		 */
+		private Node<E> prev;
+
+		private Node(E element) {
+			this.element = element;
+		}
+	}
+
+	private Node<E> root;
+
+	private Map<E, Node<E>> map = new HashMap<>();
+
+	public PairingMaxHeap(Comparator<? super E> comparator) {
+		super(comparator);
+	}
+
+	@Override
+	public int size() {
+		return map.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return root == null;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return map.containsKey(o);
+	}
+
+	/**
+	 * Returns elements in no particular order.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return Collections.unmodifiableSet(map.keySet()).iterator();
+	}
+
+	@Override
+	public boolean offer(E e) {
+		checkState(!map.containsKey(e), "Element %s is already present in heap", e);
+		Node<E> node = new Node<>(e);
+		map.put(e, node);
+		root = link(root, node);
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		if (isEmpty())
+			return null;
+		E max = root.element;
+		map.remove(max);
+		root = mergePairs(root.child);
+		return max;
+	}
+
+	@Override
+	public E peek() {
+		return isEmpty() ? null : root.element;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Node<E> node = map.remove(o);
+		if (node == null)
+			return false;
+		detach(node);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		root = null;
+		map.clear();
+	}
+
+	@Override
+	public void changeKey(E e) {
+		Node<E> node = map.get(e);
+		checkState(node != null, "Element %s should be present in heap", e);
+		if (node == root || hasGreaterSon(node)) {
+			detach(node);
+			node.child = null;
+		} else {
+			cut(node);
+		}
+		root = link(root, node);
+	}
+
+	/**
+	 * Restores heap after the key of element has increased, in O(1): the subtree of the element is cut and linked with
+	 * the root without looking at its sons. If the key may have decreased, use {@link #changeKey} instead.
+	 */
+	public void increaseKey(E e) {
+		Node<E> node = map.get(e);
+		checkState(node != null, "Element %s should be present in heap", e);
+		if (node != root) {
+			cut(node);
+			root = link(root, node);
+		}
+	}
+
+	/**
+	 * Moves all elements of other heap to this one, leaving the other heap empty. Linking the trees takes O(1), the
+	 * element index of the smaller heap is merged into the larger one.
+	 */
+	public void meld(PairingMaxHeap<E> other) {
+		checkArgument(other != this, "Heap cannot be melded with itself");
+		Map<E, Node<E>> smaller = other.map.size() > map.size() ? map : other.map;
+		Map<E, Node<E>> larger = smaller == map ? other.map : map;
+		for (E e : smaller.keySet())
+			checkState(!larger.containsKey(e), "Element %s is present in both heaps", e);
+		other.map = smaller;
+		map = larger;
+		map.putAll(smaller);
+		root = link(root, other.root);
+		other.clear();
+	}
+
+	private boolean hasGreaterSon(Node<E> node) {
+		for (Node<E> son = node.child; son != null; son = son.next) {
+			if (comparator.compare(son.element, node.element) > 0)
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Takes node out of the tree, its sons stay in the heap.
+	 */
+	private void detach(Node<E> node) {
+		if (node == root) {
+			root = mergePairs(root.child);
+		} else {
+			cut(node);
+			root = link(root, mergePairs(node.child));
+		}
+	}
+
+	/**
+	 * Takes the subtree rooted at node out of the tree.
+	 */
+	private void cut(Node<E> node) {
+		if (node.prev.child == node)
+			node.prev.child = node.next;
+		else
+			node.prev.next = node.next;
+		if (node.next != null)
+			node.next.prev = node.prev;
+		node.next = null;
+		node.prev = null;
+	}
+
+	private Node<E> link(Node<E> first, Node<E> second) {
+		if (first == null)
+			return second;
+		if (second == null)
+			return first;
+		if (comparator.compare(second.element, first.element) > 0) {
+			Node<E> tmp = first;
+			first = second;
+			second = tmp;
+		}
+		second.prev = first;
+		second.next = first.child;
+		if (first.child != null)
+			first.child.prev = second;
+		first.child = second;
+		return first;
+	}
+
+	/**
+	 * Standard two-pass pairing: link sons in pairs left to right, then link the pairs right to left.
+	 */
+	private Node<E> mergePairs(Node<E> first) {
+		Node<E> pairs = null;
+		while (first != null) {
+			Node<E> a = first;
+			Node<E> b = a.next;
+			first = b == null ? null : b.next;
+			a.next = a.prev = null;
+			if (b != null)
+				b.next = b.prev = null;
+			Node<E> pair = link(a, b);
+			pair.next = pairs;
+			pairs = pair;
+		}
+		Node<E> result = null;
+		while (pairs != null) {
+			Node<E> next = pairs.next;
+			pairs.next = null;
+			result = link(result, pairs);
+			pairs = next;
+		}
+		return result;
+	}
+}
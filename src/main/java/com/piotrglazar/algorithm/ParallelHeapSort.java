@@ -0,0 +1,157 @@
+package com.piotrglazar.algorithm;
+
+import java.lang.reflect.Array;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join sort: partitions of at most {@link #THRESHOLD} elements are heap sorted in place, sorted halves are merged
+ * through a buffer.
+ */
+final class ParallelHeapSort {
+
+	static final int THRESHOLD = 1 << 13;
+
+	private ParallelHeapSort() {
+	}
+
+	@SuppressWarnings("unchecked")
+	static <E> void sort(E[] array, Comparator<? super E> comparator) {
+		if (array.length <= THRESHOLD) {
+			Heaps.heapSort(array, comparator);
+		} else {
+			E[] buffer = (E[]) Array.newInstance(array.getClass().getComponentType(), array.length);
+			ForkJoinPool.commonPool().invoke(new ObjectSortTask<>(array, buffer, 0, array.length, comparator));
+		}
+	}
+
+	static void sort(int[] array) {
+		if (array.length <= THRESHOLD)
+			Heaps.heapSort(array);
+		else
+			ForkJoinPool.commonPool().invoke(new IntSortTask(array, new int[array.length], 0, array.length));
+	}
+
+	static void sort(long[] array) {
+		if (array.length <= THRESHOLD)
+			Heaps.heapSort(array);
+		else
+			ForkJoinPool.commonPool().invoke(new LongSortTask(array, new long[array.length], 0, array.length));
+	}
+
+	private static final class ObjectSortTask<E> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final E[] array;
+
+		private final E[] buffer;
+
+		private final int from;
+
+		private final int to;
+
+		private final Comparator<? super E> comparator;
+
+		private ObjectSortTask(E[] array, E[] buffer, int from, int to, Comparator<? super E> comparator) {
+			this.array = array;
+			this.buffer = buffer;
+			this.from = from;
+			this.to = to;
+			this.comparator = comparator;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= THRESHOLD) {
+				Heaps.heapSort(array, from, to, comparator);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new ObjectSortTask<>(array, buffer, from, middle, comparator),
+					new ObjectSortTask<>(array, buffer, middle, to, comparator));
+			System.arraycopy(array, from, buffer, from, middle - from);
+			int left = from;
+			int right = middle;
+			int target = from;
+			while (left < middle && right < to)
+				array[target++] = comparator.compare(array[right], buffer[left]) < 0 ? array[right++] : buffer[left++];
+			System.arraycopy(buffer, left, array, target, middle - left);
+		}
+	}
+
+	private static final class IntSortTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int[] array;
+
+		private final int[] buffer;
+
+		private final int from;
+
+		private final int to;
+
+		private IntSortTask(int[] array, int[] buffer, int from, int to) {
+			this.array = array;
+			this.buffer = buffer;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= THRESHOLD) {
+				Heaps.heapSort(array, from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new IntSortTask(array, buffer, from, middle), new IntSortTask(array, buffer, middle, to));
+			System.arraycopy(array, from, buffer, from, middle - from);
+			int left = from;
+			int right = middle;
+			int target = from;
+			while (left < middle && right < to)
+				array[target++] = array[right] < buffer[left] ? array[right++] : buffer[left++];
+			System.arraycopy(buffer, left, array, target, middle - left);
+		}
+	}
+
+	private static final class LongSortTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final long[] array;
+
+		private final long[] buffer;
+
+		private final int from;
+
+		private final int to;
+
+		private LongSortTask(long[] array, long[] buffer, int from, int to) {
+			this.array = array;
+			this.buffer = buffer;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= THRESHOLD) {
+				Heaps.heapSort(array, from, to);
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new LongSortTask(array, buffer, from, middle), new LongSortTask(array, buffer, middle, to));
+			System.arraycopy(array, from, buffer, from, middle - from);
+			int left = from;
+			int right = middle;
+			int target = from;
+			while (left < middle && right < to)
+				array[target++] = array[right] < buffer[left] ? array[right++] : buffer[left++];
+			System.arraycopy(buffer, left, array, target, middle - left);
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Monotone min-priority queue of long keys attached to non-negative int ids (Ahuja, Mehlhorn, Orlin, Tarjan: "Faster
+ * algorithms for the shortest path problem"), for workloads such as Dijkstra's algorithm with integer weights, where
+ * the extracted keys never decrease. Unlike the other heaps, it returns the smallest key first.
+ * <p>
+ * Constraint: every key added or changed must not be smaller than the last polled key; violations are rejected. Within
+ * it, keys may change in both directions.
+ * <p>
+ * Elements are kept in 65 buckets: bucket b holds keys whose highest bit differing from the last polled key is bit
+ * b - 1, bucket 0 holds keys equal to it. Buckets are doubly linked lists threaded through arrays indexed by id, so
+ * {@link #add}, {@link #changeKey} and {@link #remove} take O(1) and do not compare keys. {@link #poll} empties the
+ * lowest bucket into lower ones; an element can only move down, so polling takes O(log C) amortized, where C is the
+ * span of the keys, and nothing is allocated apart from growing the arrays.
+ */
+public class RadixHeap {
+
+	private static final int BUCKETS = 65;
+
+	private static final int NONE = -1;
+
+	private final int[] heads = new int[BUCKETS];
+
+	/**
+	 * Bit b - 1 is set when bucket b, b > 0, is not empty.
+	 */
+	private long occupied = 0;
+
+	private long[] keys;
+
+	private int[] next;
+
+	private int[] previous;
+
+	/**
+	 * Bucket of every id, or NONE for absent ids.
+	 */
+	private byte[] buckets;
+
+	private long last = Long.MIN_VALUE;
+
+	private int size = 0;
+
+	public RadixHeap() {
+		this(16);
+	}
+
+	public RadixHeap(int capacity) {
+		checkArgument(capacity > 0, "Capacity must be positive, got %s", capacity);
+		Arrays.fill(heads, NONE);
+		keys = new long[capacity];
+		next = new int[capacity];
+		previous = new int[capacity];
+		buckets = new byte[capacity];
+		Arrays.fill(buckets, (byte) NONE);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean contains(int id) {
+		return id >= 0 && id < buckets.length && buckets[id] != NONE;
+	}
+
+	/**
+	 * Returns the last polled key, the lower bound of keys which can be added; Long.MIN_VALUE before the first poll and
+	 * after clearing.
+	 */
+	public long lastKey() {
+		return last;
+	}
+
+	public void add(int id, long key) {
+		checkArgument(id >= 0 && id < Integer.MAX_VALUE, "Id must be in [0, %s), got %s", Integer.MAX_VALUE, id);
+		checkState(!contains(id), "Id %s is already present in heap", id);
+		checkMonotone(key);
+		ensureCapacity(id + 1);
+		keys[id] = key;
+		link(id);
+		++size;
+	}
+
+	public long key(int id) {
+		checkPresent(id);
+		return keys[id];
+	}
+
+	/**
+	 * Sets a new key of present id, greater or smaller than the current one, but not smaller than the last polled key.
+	 */
+	public void changeKey(int id, long newKey) {
+		checkPresent(id);
+		checkMonotone(newKey);
+		unlink(id);
+		keys[id] = newKey;
+		link(id);
+	}
+
+	/**
+	 * Adds id with the given key or changes its key if it is present.
+	 */
+	public void addOrChangeKey(int id, long key) {
+		if (contains(id))
+			changeKey(id, key);
+		else
+			add(id, key);
+	}
+
+	public boolean remove(int id) {
+		if (!contains(id))
+			return false;
+		unlink(id);
+		buckets[id] = NONE;
+		--size;
+		return true;
+	}
+
+	/**
+	 * Returns the smallest key without moving elements between buckets, which takes O(size of the lowest bucket).
+	 */
+	public long peekKey() {
+		return keys[peekId()];
+	}
+
+	public int peekId() {
+		checkNotEmpty();
+		if (heads[0] != NONE)
+			return heads[0];
+		return minimum(heads[lowestOccupied()]);
+	}
+
+	/**
+	 * Removes an element with the smallest key and returns its id.
+	 */
+	public int poll() {
+		checkNotEmpty();
+		if (heads[0] == NONE) {
+			int bucket = lowestOccupied();
+			int id = heads[bucket];
+			last = keys[minimum(id)];
+			heads[bucket] = NONE;
+			occupied &= ~(1L << (bucket - 1));
+			while (id != NONE) {
+				int following = next[id];
+				link(id);
+				id = following;
+			}
+		}
+		int min = heads[0];
+		remove(min);
+		return min;
+	}
+
+	public void clear() {
+		for (int bucket = 0; bucket < BUCKETS; ++bucket) {
+			for (int id = heads[bucket]; id != NONE; id = next[id])
+				buckets[id] = NONE;
+			heads[bucket] = NONE;
+		}
+		occupied = 0;
+		size = 0;
+		last = Long.MIN_VALUE;
+	}
+
+	private int bucket(long key) {
+		return 64 - Long.numberOfLeadingZeros(key ^ last);
+	}
+
+	private int lowestOccupied() {
+		return Long.numberOfTrailingZeros(occupied) + 1;
+	}
+
+	private int minimum(int head) {
+		int min = head;
+		for (int id = next[head]; id != NONE; id = next[id]) {
+			if (keys[id] < keys[min])
+				min = id;
+		}
+		return min;
+	}
+
+	private void link(int id) {
+		int bucket = bucket(keys[id]);
+		int head = heads[bucket];
+		next[id] = head;
+		previous[id] = NONE;
+		if (head != NONE)
+			previous[head] = id;
+		heads[bucket] = id;
+		buckets[id] = (byte) bucket;
+		if (bucket > 0)
+			occupied |= 1L << (bucket - 1);
+	}
+
+	private void unlink(int id) {
+		int bucket = buckets[id];
+		if (previous[id] == NONE) {
+			heads[bucket] = next[id];
+			if (bucket > 0 && next[id] == NONE)
+				occupied &= ~(1L << (bucket - 1));
+		} else {
+			next[previous[id]] = next[id];
+		}
+		if (next[id] != NONE)
+			previous[next[id]] = previous[id];
+	}
+
+	private void checkMonotone(long key) {
+		checkArgument(key >= last, "Key %s is smaller than the last polled key %s", key, last);
+	}
+
+	private void checkPresent(int id) {
+		checkState(contains(id), "Id %s should be present in heap", id);
+	}
+
+	private void checkNotEmpty() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+	}
+
+	private void ensureCapacity(int idCapacity) {
+		if (idCapacity > buckets.length) {
+			int oldCapacity = buckets.length;
+			int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(idCapacity, (long) oldCapacity << 1));
+			keys = Arrays.copyOf(keys, capacity);
+			next = Arrays.copyOf(next, capacity);
+			previous = Arrays.copyOf(previous, capacity);
+			buckets = Arrays.copyOf(buckets, capacity);
+			Arrays.fill(buckets, oldCapacity, capacity, (byte) NONE);
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.piotrglazar.algorithm;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Cursor over length-prefixed records written by {@link RecordWriter}, reading them through a memory-mapped window
+ * which is moved when the next record does not fit.
+ */
+final class RecordReader<E> implements AutoCloseable {
+
+	private final FileChannel channel;
+
+	private final Serializer<? extends E> serializer;
+
+	private final int windowBytes;
+
+	private final long size;
+
+	private long windowStart;
+
+	private MappedByteBuffer window;
+
+	private E head;
+
+	/**
+	 * Takes ownership of the channel, which is closed if the reader cannot be created.
+	 */
+	RecordReader(FileChannel channel, long start, Serializer<? extends E> serializer, int windowBytes)
+			throws IOException {
+		this.channel = channel;
+		this.serializer = serializer;
+		this.windowBytes = windowBytes;
+		try {
+			size = channel.size();
+			windowStart = Math.min(start, size);
+			window = channel.map(MapMode.READ_ONLY, windowStart, Math.min(size - windowStart, windowBytes));
+		} catch (IOException | RuntimeException e) {
+			try {
+				channel.close();
+			} catch (IOException suppressed) {
+				e.addSuppressed(suppressed);
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the next record into {@link #head()}; returns false at the end of the channel.
+	 */
+	boolean advance() throws IOException {
+		long position = windowStart + window.position();
+		if (position >= size) {
+			head = null;
+			return false;
+		}
+		if (window.remaining() < 4)
+			remap(position, 4);
+		int recordSize = window.getInt(window.position());
+		if (window.remaining() < 4 + recordSize)
+			remap(position, 4 + recordSize);
+		int start = window.position() + 4;
+		int limit = window.limit();
+		window.position(start);
+		window.limit(start + recordSize);
+		head = serializer.read(window);
+		window.limit(limit);
+		window.position(start + recordSize);
+		return true;
+	}
+
+	E head() {
+		return head;
+	}
+
+	private void remap(long position, int required) throws IOException {
+		windowStart = position;
+		window = channel.map(MapMode.READ_ONLY, position, Math.min(size - position, Math.max(windowBytes, required)));
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
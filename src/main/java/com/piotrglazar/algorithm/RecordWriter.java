@@ -0,0 +1,74 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes length-prefixed records to a channel through a large direct buffer. Records larger than the buffer are
+ * written through a temporary one.
+ */
+final class RecordWriter<E> implements AutoCloseable {
+
+	static final int BUFFER_BYTES = 1 << 20;
+
+	private final FileChannel channel;
+
+	private final Serializer<? super E> serializer;
+
+	private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+	RecordWriter(FileChannel channel, Serializer<? super E> serializer) {
+		this.channel = channel;
+		this.serializer = serializer;
+	}
+
+	/**
+	 * Declared without checked exceptions so that it can be used as a {@link java.util.function.Consumer}.
+	 */
+	void write(E element) {
+		try {
+			int size = serializer.size(element);
+			if (buffer.remaining() < 4 + size)
+				flush();
+			ByteBuffer target = buffer.remaining() < 4 + size ? ByteBuffer.allocate(4 + size) : buffer;
+			target.putInt(size);
+			int start = target.position();
+			serializer.write(element, target);
+			checkState(target.position() - start == size, "Serializer wrote %s bytes of %s, declared %s",
+					target.position() - start, element, size);
+			if (target != buffer) {
+				target.flip();
+				writeFully(target);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	void flush() throws IOException {
+		buffer.flip();
+		writeFully(buffer);
+		buffer.clear();
+	}
+
+	private void writeFully(ByteBuffer source) throws IOException {
+		while (source.hasRemaining())
+			channel.write(source);
+	}
+
+	/**
+	 * Flushes the buffer and closes the channel.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+}
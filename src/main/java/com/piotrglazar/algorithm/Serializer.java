@@ -0,0 +1,119 @@
+package com.piotrglazar.algorithm;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts elements to and from bytes for {@link ExternalSort} and heap snapshots. Records are length-prefixed, so
+ * {@link #read} gets a buffer limited to one record.
+ */
+public interface Serializer<E> {
+
+	/**
+	 * Returns the number of bytes {@link #write} puts.
+	 */
+	int size(E element);
+
+	void write(E element, ByteBuffer buffer);
+
+	E read(ByteBuffer buffer);
+
+	static Serializer<Long> longs() {
+		return new Serializer<Long>() {
+
+			@Override
+			public int size(Long element) {
+				return 8;
+			}
+
+			@Override
+			public void write(Long element, ByteBuffer buffer) {
+				buffer.putLong(element);
+			}
+
+			@Override
+			public Long read(ByteBuffer buffer) {
+				return buffer.getLong();
+			}
+		};
+	}
+
+	/**
+	 * Encodes strings in UTF-8, except that unpaired surrogates are kept as 3-byte sequences instead of being replaced,
+	 * so every String is read back unchanged.
+	 */
+	static Serializer<String> strings() {
+		return new Serializer<String>() {
+
+			@Override
+			public int size(String element) {
+				int size = 0;
+				for (int i = 0; i < element.length(); ++i) {
+					char c = element.charAt(i);
+					if (c < 0x80) {
+						size += 1;
+					} else if (c < 0x800) {
+						size += 2;
+					} else if (Character.isHighSurrogate(c) && i + 1 < element.length()
+							&& Character.isLowSurrogate(element.charAt(i + 1))) {
+						size += 4;
+						++i;
+					} else {
+						size += 3;
+					}
+				}
+				return size;
+			}
+
+			@Override
+			public void write(String element, ByteBuffer buffer) {
+				for (int i = 0; i < element.length(); ++i) {
+					char c = element.charAt(i);
+					if (c < 0x80) {
+						buffer.put((byte) c);
+					} else if (c < 0x800) {
+						buffer.put((byte) (0xC0 | c >> 6));
+						buffer.put(continuation(c));
+					} else if (Character.isHighSurrogate(c) && i + 1 < element.length()
+							&& Character.isLowSurrogate(element.charAt(i + 1))) {
+						int codePoint = Character.toCodePoint(c, element.charAt(++i));
+						buffer.put((byte) (0xF0 | codePoint >> 18));
+						buffer.put(continuation(codePoint >> 12));
+						buffer.put(continuation(codePoint >> 6));
+						buffer.put(continuation(codePoint));
+					} else {
+						buffer.put((byte) (0xE0 | c >> 12));
+						buffer.put(continuation(c >> 6));
+						buffer.put(continuation(c));
+					}
+				}
+			}
+
+			@Override
+			public String read(ByteBuffer buffer) {
+				StringBuilder builder = new StringBuilder(buffer.remaining());
+				while (buffer.hasRemaining()) {
+					int b = buffer.get() & 0xFF;
+					if (b < 0x80) {
+						builder.append((char) b);
+					} else if (b < 0xE0) {
+						builder.append((char) ((b & 0x1F) << 6 | payload(buffer)));
+					} else if (b < 0xF0) {
+						builder.append((char) ((b & 0x0F) << 12 | payload(buffer) << 6 | payload(buffer)));
+					} else {
+						builder.appendCodePoint((b & 0x07) << 18 | payload(buffer) << 12 | payload(buffer) << 6
+								| payload(buffer));
+					}
+				}
+				return builder.toString();
+			}
+
+			private byte continuation(int bits) {
+				return (byte) (0x80 | bits & 0x3F);
+			}
+
+			private int payload(ByteBuffer buffer) {
+				return buffer.get() & 0x3F;
+			}
+		};
+	}
+}
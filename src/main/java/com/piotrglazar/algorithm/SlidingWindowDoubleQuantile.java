@@ -0,0 +1,143 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Quantile of the double samples in a sliding window, like {@link SlidingWindowQuantile}, which allocates nothing after
+ * construction. Samples are kept in a ring buffer of windowSize slots and the slot index is the id of the sample in two
+ * {@link DoubleMaxHeap}s: one holds samples up to the quantile, the other holds negated remaining samples. Adding and
+ * expiring take O(log n).
+ * <p>
+ * Samples are ordered as by {@link Double#compare(double, double)}; NaN is rejected.
+ */
+public class SlidingWindowDoubleQuantile {
+
+	private final double quantile;
+
+	private final double[] values;
+
+	private final long[] timestamps;
+
+	private final DoubleMaxHeap lower;
+
+	private final DoubleMaxHeap upper;
+
+	/**
+	 * Slot of the oldest sample.
+	 */
+	private int head = 0;
+
+	private int size = 0;
+
+	public SlidingWindowDoubleQuantile(int windowSize, double quantile) {
+		checkArgument(windowSize > 0, "Window size must be positive, got %s", windowSize);
+		checkArgument(quantile >= 0 && quantile <= 1, "Quantile must be in [0, 1], got %s", quantile);
+		this.quantile = quantile;
+		this.values = new double[windowSize];
+		this.timestamps = new long[windowSize];
+		this.lower = new DoubleMaxHeap(windowSize);
+		this.upper = new DoubleMaxHeap(windowSize);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Adds a sample which does not expire by time, expiring the oldest sample if the window is full.
+	 */
+	public void add(double sample) {
+		add(sample, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Adds a sample, expiring the oldest sample if the window is full. Timestamps should not decrease.
+	 */
+	public void add(double sample, long timestamp) {
+		checkArgument(!Double.isNaN(sample), "Sample must not be NaN");
+		if (size == values.length)
+			expireOldest();
+		int slot = (head + size) % values.length;
+		values[slot] = sample;
+		timestamps[slot] = timestamp;
+		++size;
+		if (!lower.isEmpty() && Double.compare(sample, lower.peekKey()) <= 0)
+			lower.add(slot, sample);
+		else
+			upper.add(slot, -sample);
+		rebalance();
+	}
+
+	/**
+	 * Removes the oldest sample and returns it.
+	 */
+	public double expireOldest() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		int slot = head;
+		if (!lower.remove(slot))
+			upper.remove(slot);
+		head = (head + 1) % values.length;
+		--size;
+		rebalance();
+		return values[slot];
+	}
+
+	/**
+	 * Removes the oldest samples with timestamps lower than the given one and returns their number.
+	 */
+	public int expireBefore(long timestamp) {
+		int expired = 0;
+		while (size > 0 && timestamps[head] < timestamp) {
+			expireOldest();
+			++expired;
+		}
+		return expired;
+	}
+
+	/**
+	 * Returns the sample of rank floor(q * (n - 1)) among n samples in the window.
+	 */
+	public double quantile() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		return lower.peekKey();
+	}
+
+	/**
+	 * Returns the quantile linearly interpolated between the samples of ranks floor(q * (n - 1)) and ceil(q * (n - 1)),
+	 * so q = 0.5 gives the usual median.
+	 */
+	public double interpolatedQuantile() {
+		double below = quantile();
+		double fraction = quantile * (size - 1) - (lower.size() - 1);
+		if (fraction == 0 || upper.isEmpty())
+			return below;
+		return below + fraction * (-upper.peekKey() - below);
+	}
+
+	public void clear() {
+		lower.clear();
+		upper.clear();
+		head = 0;
+		size = 0;
+	}
+
+	private void rebalance() {
+		int lowerSize = size == 0 ? 0 : (int) (quantile * (size - 1)) + 1;
+		while (lower.size() > lowerSize) {
+			int slot = lower.poll();
+			upper.add(slot, -values[slot]);
+		}
+		while (lower.size() < lowerSize) {
+			int slot = upper.poll();
+			lower.add(slot, values[slot]);
+		}
+	}
+}
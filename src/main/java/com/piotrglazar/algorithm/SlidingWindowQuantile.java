@@ -0,0 +1,142 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * Quantile of the samples in a sliding window, which holds at most windowSize most recent samples and from which the
+ * oldest samples can also be expired by timestamp. The quantile q is the sample of rank floor(q * (n - 1)) (from 0)
+ * among n samples in the window, so q = 0.5 gives the lower median.
+ * <p>
+ * Samples up to the quantile are kept in one {@link MaxHeap} and the remaining ones in another, reversed, MaxHeap, so
+ * the quantile is the top of the first heap. Expired samples are removed from the middle of their heap, so adding and
+ * expiring take O(log n). Every sample is wrapped in an object compared by identity, so equal samples are allowed; see
+ * {@link SlidingWindowDoubleQuantile} for a variant which allocates nothing per sample.
+ */
+public class SlidingWindowQuantile<E> {
+
+	private static final class Sample<E> {
+
+		private final E value;
+
+		private final long timestamp;
+
+		private boolean lower;
+
+		private Sample(E value, long timestamp) {
+			this.value = value;
+			this.timestamp = timestamp;
+		}
+	}
+
+	private final Comparator<? super E> comparator;
+
+	private final int windowSize;
+
+	private final double quantile;
+
+	private final ArrayDeque<Sample<E>> samples = new ArrayDeque<>();
+
+	private final MaxHeap<Sample<E>> lower;
+
+	private final MaxHeap<Sample<E>> upper;
+
+	public SlidingWindowQuantile(Comparator<? super E> comparator, int windowSize, double quantile) {
+		checkArgument(windowSize > 0, "Window size must be positive, got %s", windowSize);
+		checkArgument(quantile >= 0 && quantile <= 1, "Quantile must be in [0, 1], got %s", quantile);
+		this.comparator = comparator;
+		this.windowSize = windowSize;
+		this.quantile = quantile;
+		Comparator<Sample<E>> byValue = (first, second) -> comparator.compare(first.value, second.value);
+		this.lower = new MaxHeap<>(byValue);
+		this.upper = new MaxHeap<>(byValue.reversed());
+	}
+
+	public int size() {
+		return samples.size();
+	}
+
+	public boolean isEmpty() {
+		return samples.isEmpty();
+	}
+
+	/**
+	 * Adds a sample which does not expire by time, expiring the oldest sample if the window is full.
+	 */
+	public void add(E sample) {
+		add(sample, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Adds a sample, expiring the oldest sample if the window is full. Timestamps should not decrease.
+	 */
+	public void add(E sample, long timestamp) {
+		if (samples.size() == windowSize)
+			expireOldest();
+		Sample<E> added = new Sample<>(sample, timestamp);
+		samples.addLast(added);
+		if (!lower.isEmpty() && comparator.compare(sample, lower.peek().value) <= 0) {
+			added.lower = true;
+			lower.add(added);
+		} else {
+			upper.add(added);
+		}
+		rebalance();
+	}
+
+	/**
+	 * Removes the oldest sample and returns it.
+	 */
+	public E expireOldest() {
+		Sample<E> oldest = samples.pollFirst();
+		if (oldest == null)
+			throw new NoSuchElementException();
+		if (oldest.lower)
+			lower.remove(oldest);
+		else
+			upper.remove(oldest);
+		rebalance();
+		return oldest.value;
+	}
+
+	/**
+	 * Removes the oldest samples with timestamps lower than the given one and returns their number.
+	 */
+	public int expireBefore(long timestamp) {
+		int expired = 0;
+		while (!samples.isEmpty() && samples.peekFirst().timestamp < timestamp) {
+			expireOldest();
+			++expired;
+		}
+		return expired;
+	}
+
+	public E quantile() {
+		if (lower.isEmpty())
+			throw new NoSuchElementException();
+		return lower.peek().value;
+	}
+
+	public void clear() {
+		samples.clear();
+		lower.clear();
+		upper.clear();
+	}
+
+	private void rebalance() {
+		int lowerSize = samples.isEmpty() ? 0 : (int) (quantile * (samples.size() - 1)) + 1;
+		while (lower.size() > lowerSize) {
+			Sample<E> moved = lower.poll();
+			moved.lower = false;
+			upper.add(moved);
+		}
+		while (lower.size() < lowerSize) {
+			Sample<E> moved = upper.poll();
+			moved.lower = true;
+			lower.add(moved);
+		}
+	}
+}
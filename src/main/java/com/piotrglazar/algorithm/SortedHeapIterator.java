@@ -0,0 +1,99 @@
+package com.piotrglazar.algorithm;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over a max heap stored in a 0-based list, greatest first, without modifying it. Positions of the candidates
+ * for the next element (sons of the elements already returned) are kept in an auxiliary max heap, the frontier, which
+ * never holds more than k + 1 positions, so returning k elements takes O(k log k) regardless of the heap size.
+ * <p>
+ * A change of the heap size during iteration is detected, other modifications are not.
+ */
+final class SortedHeapIterator<E> implements Iterator<E> {
+
+	private final List<E> heap;
+
+	private final int size;
+
+	private final Comparator<? super E> comparator;
+
+	private int[] frontier = new int[16];
+
+	private int frontierSize = 0;
+
+	SortedHeapIterator(List<E> heap, Comparator<? super E> comparator) {
+		this.heap = heap;
+		this.size = heap.size();
+		this.comparator = comparator;
+		if (size > 0)
+			frontier[frontierSize++] = 0;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return frontierSize > 0;
+	}
+
+	@Override
+	public E next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		if (heap.size() != size)
+			throw new ConcurrentModificationException();
+		int top = frontier[0];
+		int son = (top << 1) + 1;
+		if (son < size) {
+			frontier[0] = son;
+			siftDown();
+			if (son + 1 < size)
+				push(son + 1);
+		} else if (--frontierSize > 0) {
+			frontier[0] = frontier[frontierSize];
+			siftDown();
+		}
+		return heap.get(top);
+	}
+
+	private void push(int position) {
+		if (frontierSize == frontier.length)
+			frontier = Arrays.copyOf(frontier, frontierSize << 1);
+		int i = frontierSize++;
+		E element = heap.get(position);
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (comparator.compare(heap.get(frontier[parent]), element) >= 0)
+				break;
+			frontier[i] = frontier[parent];
+			i = parent;
+		}
+		frontier[i] = position;
+	}
+
+	private void siftDown() {
+		int position = frontier[0];
+		E element = heap.get(position);
+		int half = frontierSize >>> 1;
+		int i = 0;
+		while (i < half) {
+			int son = (i << 1) + 1;
+			E sonValue = heap.get(frontier[son]);
+			if (son + 1 < frontierSize) {
+				E rightSonValue = heap.get(frontier[son + 1]);
+				if (comparator.compare(rightSonValue, sonValue) > 0) {
+					++son;
+					sonValue = rightSonValue;
+				}
+			}
+			if (comparator.compare(element, sonValue) >= 0)
+				break;
+			frontier[i] = frontier[son];
+			i = son;
+		}
+		frontier[i] = position;
+	}
+}
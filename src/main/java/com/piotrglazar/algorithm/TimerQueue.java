@@ -0,0 +1,372 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Queue of rescheduleable timers built on {@link Heap#changeKey}: the timer with the earliest deadline is the maximum
+ * of the heap, so scheduling, rescheduling and cancelling take O(log n) and expired timers are drained in batches.
+ * Time is an abstract long supplied by the caller, for example milliseconds or {@link System#nanoTime()}.
+ * <p>
+ * Optionally, near-term deadlines are kept in a hierarchical timing wheel (Varghese, Lauck: "Hashed and hierarchical
+ * timing wheels") in front of the heap, where scheduling, rescheduling and cancelling take O(1). A slot on level i of
+ * the wheel covers tick * slotsPerLevel^i time units. Timers beyond the span of the wheel wait in the heap and move to
+ * the wheel when time approaches them; timers of a higher level slot move to lower levels when its time comes. Expiry
+ * stays exact, a deadline is compared with the current time rather than rounded to ticks.
+ * <p>
+ * Not thread safe.
+ */
+public class TimerQueue<T> {
+
+	private static final byte NONE = 0;
+
+	private static final byte HEAP = 1;
+
+	private static final byte WHEEL = 2;
+
+	public static final class Timer<T> {
+
+		private final T payload;
+
+		private long deadline;
+
+		private byte tier = NONE;
+
+		private int bucket;
+
+		private Timer<T> previous;
+
+		private Timer<T> next;
+
+		private Timer(T payload, long deadline) {
+			this.payload = payload;
+			this.deadline = deadline;
+		}
+
+		public T payload() {
+			return payload;
+		}
+
+		public long deadline() {
+			return deadline;
+		}
+
+		/**
+		 * Returns false once the timer has expired or has been cancelled.
+		 */
+		public boolean isScheduled() {
+			return tier != NONE;
+		}
+
+		@Override
+		public String toString() {
+			return "Timer[" + payload + ", " + deadline + "]";
+		}
+	}
+
+	private final Heap<Timer<T>> heap;
+
+	private final long tick;
+
+	private final int levels;
+
+	private final int slotBits;
+
+	private final long slotMask;
+
+	/**
+	 * Heads of doubly linked lists of timers, slots of level i start at i << slotBits.
+	 */
+	private final Timer<T>[] buckets;
+
+	private int wheelSize = 0;
+
+	private long currentTick;
+
+	public TimerQueue() {
+		this(MaxHeap::new);
+	}
+
+	/**
+	 * Creates queue keeping all timers in a heap created by the factory from an earliest-deadline-first comparator.
+	 * The heap must support {@link Heap#changeKey} in both directions and {@link Heap#remove(Object)}.
+	 */
+	public TimerQueue(Function<Comparator<Timer<T>>, ? extends Heap<Timer<T>>> heapFactory) {
+		this(heapFactory, 0, 0, 1, 0);
+	}
+
+	/**
+	 * Creates queue with a timing wheel of the given number of levels in front of a {@link MaxHeap}. The wheel spans
+	 * tick * slotsPerLevel^levels time units from now; expiring takes O(1) per elapsed tick, so the tick should be
+	 * close to the interval between calls to {@link #expire}.
+	 */
+	public static <T> TimerQueue<T> withTimingWheel(long now, long tick, int slotsPerLevel, int levels) {
+		checkArgument(tick > 0, "Tick must be positive, got %s", tick);
+		checkArgument(slotsPerLevel > 1 && Integer.bitCount(slotsPerLevel) == 1,
+				"Slots per level must be a power of two greater than 1, got %s", slotsPerLevel);
+		int slotBits = Integer.numberOfTrailingZeros(slotsPerLevel);
+		checkArgument(levels > 0 && levels * slotBits < 48, "Levels must be positive and span less than 2^48 ticks, "
+				+ "got %s levels of %s slots", levels, slotsPerLevel);
+		return new TimerQueue<>(MaxHeap::new, now, tick, slotsPerLevel, levels);
+	}
+
+	@SuppressWarnings("unchecked")
+	private TimerQueue(Function<Comparator<Timer<T>>, ? extends Heap<Timer<T>>> heapFactory, long now, long tick,
+			int slotsPerLevel, int levels) {
+		checkArgument(heapFactory != null, "Null heap factory");
+		this.heap = heapFactory.apply((first, second) -> Long.compare(second.deadline, first.deadline));
+		this.tick = tick;
+		this.levels = levels;
+		this.slotBits = Integer.numberOfTrailingZeros(slotsPerLevel);
+		this.slotMask = slotsPerLevel - 1;
+		this.buckets = new Timer[levels * slotsPerLevel];
+		this.currentTick = tick == 0 ? 0 : Math.floorDiv(now, tick);
+	}
+
+	public int size() {
+		return heap.size() + wheelSize;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public Timer<T> schedule(T payload, long deadline) {
+		Timer<T> timer = new Timer<>(payload, deadline);
+		add(timer);
+		return timer;
+	}
+
+	/**
+	 * Moves scheduled timer of this queue to a new deadline, earlier or later.
+	 */
+	public void reschedule(Timer<T> timer, long deadline) {
+		checkState(timer.isScheduled(), "Timer %s is not scheduled", timer);
+		if (timer.tier == HEAP && beyondWheel(deadline)) {
+			timer.deadline = deadline;
+			heap.changeKey(timer);
+		} else {
+			detach(timer);
+			timer.deadline = deadline;
+			add(timer);
+		}
+	}
+
+	/**
+	 * Returns false if the timer has already expired or has been cancelled.
+	 */
+	public boolean cancel(Timer<T> timer) {
+		if (!timer.isScheduled())
+			return false;
+		detach(timer);
+		return true;
+	}
+
+	/**
+	 * Returns the earliest deadline. With a timing wheel, it takes O(slotsPerLevel * levels) to find it.
+	 */
+	public long nextDeadline() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		for (int level = 0; wheelSize > 0 && level < levels; ++level) {
+			int first = (int) ((currentTick >> (level * slotBits)) & slotMask);
+			for (int slot = first; slot <= slotMask; ++slot) {
+				Timer<T> timer = buckets[(level << slotBits) | slot];
+				if (timer != null)
+					return earliestDeadline(timer);
+			}
+		}
+		return heap.peek().deadline;
+	}
+
+	/**
+	 * Removes all timers with deadline not later than now and returns them.
+	 */
+	public List<Timer<T>> expire(long now) {
+		List<Timer<T>> expired = new ArrayList<>();
+		expire(now, Integer.MAX_VALUE, expired);
+		return expired;
+	}
+
+	/**
+	 * Removes up to maxTimers timers with deadline not later than now, adds them to the given collection and returns
+	 * their number. Timers come from the heap earliest first; timers of one wheel tick come in no particular order.
+	 */
+	public int expire(long now, int maxTimers, Collection<? super Timer<T>> expired) {
+		checkArgument(maxTimers >= 0, "Max timers must not be negative, got %s", maxTimers);
+		checkArgument(expired != null, "Null collection");
+		if (tick == 0)
+			return expireFromHeap(now, maxTimers, expired);
+		long target = Math.floorDiv(now, tick);
+		int count = 0;
+		while (true) {
+			count += expireBucket((int) (currentTick & slotMask), now, maxTimers - count, expired);
+			if (count == maxTimers || currentTick >= target)
+				return count;
+			advance(target);
+		}
+	}
+
+	/**
+	 * Cancels all timers.
+	 */
+	public void clear() {
+		for (Timer<T> timer : heap)
+			timer.tier = NONE;
+		heap.clear();
+		for (int bucket = 0; bucket < buckets.length; ++bucket) {
+			for (Timer<T> timer = buckets[bucket]; timer != null; timer = timer.next)
+				timer.tier = NONE;
+			buckets[bucket] = null;
+		}
+		wheelSize = 0;
+	}
+
+	private int expireFromHeap(long now, int maxTimers, Collection<? super Timer<T>> expired) {
+		int count = 0;
+		while (count < maxTimers && !heap.isEmpty() && heap.peek().deadline <= now) {
+			Timer<T> timer = heap.poll();
+			timer.tier = NONE;
+			expired.add(timer);
+			++count;
+		}
+		return count;
+	}
+
+	private int expireBucket(int bucket, long now, int maxTimers, Collection<? super Timer<T>> expired) {
+		int count = 0;
+		Timer<T> timer = buckets[bucket];
+		while (timer != null && count < maxTimers) {
+			Timer<T> next = timer.next;
+			if (timer.deadline <= now) {
+				unlink(timer);
+				timer.tier = NONE;
+				expired.add(timer);
+				++count;
+			}
+			timer = next;
+		}
+		return count;
+	}
+
+	/**
+	 * Moves the wheel forward by at least one tick, but not past target. Timers of higher level slots whose time has
+	 * come are cascaded to lower levels and heap timers within the span of the wheel move to the wheel. Long jumps
+	 * re-place all wheel timers instead of visiting every tick.
+	 */
+	private void advance(long target) {
+		if (wheelSize == 0) {
+			long next = heap.isEmpty() ? target : Math.min(target, Math.floorDiv(heap.peek().deadline, tick));
+			currentTick = Math.max(next, currentTick + 1);
+			fillFromHeap();
+		} else if (target - currentTick > Math.max(wheelSize, slotMask + 1)) {
+			List<Timer<T>> timers = new ArrayList<>(wheelSize);
+			for (int bucket = 0; bucket < buckets.length; ++bucket) {
+				for (Timer<T> timer = buckets[bucket]; timer != null; timer = timer.next)
+					timers.add(timer);
+				buckets[bucket] = null;
+			}
+			wheelSize = 0;
+			currentTick = target;
+			for (Timer<T> timer : timers)
+				placeInWheel(timer);
+			fillFromHeap();
+		} else {
+			++currentTick;
+			if ((currentTick & ((1L << (levels * slotBits)) - 1)) == 0)
+				fillFromHeap();
+			for (int level = levels - 1; level > 0; --level) {
+				if ((currentTick & ((1L << (level * slotBits)) - 1)) == 0)
+					cascade((level << slotBits) | (int) ((currentTick >> (level * slotBits)) & slotMask));
+			}
+		}
+	}
+
+	private void cascade(int bucket) {
+		Timer<T> timer = buckets[bucket];
+		while (timer != null) {
+			Timer<T> next = timer.next;
+			unlink(timer);
+			placeInWheel(timer);
+			timer = next;
+		}
+	}
+
+	private void fillFromHeap() {
+		while (!heap.isEmpty() && !beyondWheel(heap.peek().deadline))
+			placeInWheel(heap.poll());
+	}
+
+	private void add(Timer<T> timer) {
+		if (beyondWheel(timer.deadline)) {
+			timer.tier = HEAP;
+			heap.offer(timer);
+		} else {
+			placeInWheel(timer);
+		}
+	}
+
+	private void detach(Timer<T> timer) {
+		if (timer.tier == HEAP)
+			heap.remove(timer);
+		else
+			unlink(timer);
+		timer.tier = NONE;
+	}
+
+	/**
+	 * A timer is kept on the lowest level whose slot it shares with the current tick on the level above. Timers which
+	 * are due go to the slot of the current tick.
+	 */
+	private boolean beyondWheel(long deadline) {
+		if (tick == 0)
+			return true;
+		long timerTick = Math.floorDiv(deadline, tick);
+		return timerTick > currentTick && ((timerTick ^ currentTick) >>> (levels * slotBits)) != 0;
+	}
+
+	private void placeInWheel(Timer<T> timer) {
+		long timerTick = Math.max(Math.floorDiv(timer.deadline, tick), currentTick);
+		int level = 0;
+		if (timerTick != currentTick)
+			level = (63 - Long.numberOfLeadingZeros(timerTick ^ currentTick)) / slotBits;
+		link(timer, (level << slotBits) | (int) ((timerTick >> (level * slotBits)) & slotMask));
+	}
+
+	private void link(Timer<T> timer, int bucket) {
+		Timer<T> head = buckets[bucket];
+		timer.previous = null;
+		timer.next = head;
+		if (head != null)
+			head.previous = timer;
+		buckets[bucket] = timer;
+		timer.bucket = bucket;
+		timer.tier = WHEEL;
+		++wheelSize;
+	}
+
+	private void unlink(Timer<T> timer) {
+		if (timer.previous == null)
+			buckets[timer.bucket] = timer.next;
+		else
+			timer.previous.next = timer.next;
+		if (timer.next != null)
+			timer.next.previous = timer.previous;
+		timer.previous = timer.next = null;
+		--wheelSize;
+	}
+
+	private static long earliestDeadline(Timer<?> timer) {
+		long earliest = Long.MAX_VALUE;
+		for (; timer != null; timer = timer.next)
+			earliest = Math.min(earliest, timer.deadline);
+		return earliest;
+	}
+}
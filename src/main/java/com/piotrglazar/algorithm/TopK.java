@@ -0,0 +1,121 @@
+package com.piotrglazar.algorithm;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps the {@code k} greatest elements seen so far. Retained elements form a min heap, so an element which does not
+ * qualify is rejected with a single comparison against the smallest retained one (the threshold) and a qualifying one
+ * replaces it in O(log k). Duplicates are allowed.
+ */
+public class TopK<E> {
+
+	private final int k;
+
+	private final Comparator<? super E> comparator;
+
+	private final Object[] array;
+
+	private int heapSize = 0;
+
+	public TopK(int k, Comparator<? super E> comparator) {
+		checkArgument(k > 0, "K must be positive, got %s", k);
+		this.k = k;
+		this.comparator = checkNotNull(comparator, "Null comparator");
+		array = new Object[k];
+	}
+
+	public int k() {
+		return k;
+	}
+
+	public int size() {
+		return heapSize;
+	}
+
+	public boolean isEmpty() {
+		return heapSize == 0;
+	}
+
+	/**
+	 * Returns the smallest retained element or null if nothing has been retained yet.
+	 */
+	public E threshold() {
+		return isEmpty() ? null : element(0);
+	}
+
+	/**
+	 * Returns true if the element has been retained.
+	 */
+	public boolean offer(E e) {
+		if (heapSize < k) {
+			array[heapSize] = e;
+			siftUp(heapSize++);
+			return true;
+		}
+		if (comparator.compare(e, element(0)) <= 0)
+			return false;
+		array[0] = e;
+		siftDown(0);
+		return true;
+	}
+
+	/**
+	 * Offers all elements retained by other collector, which is left untouched.
+	 */
+	public TopK<E> merge(TopK<? extends E> other) {
+		for (int i = 0; i < other.heapSize; ++i)
+			offer(other.element(i));
+		return this;
+	}
+
+	/**
+	 * Returns retained elements, greatest first.
+	 */
+	@SuppressWarnings("unchecked")
+	public List<E> toSortedList() {
+		E[] sorted = (E[]) Arrays.copyOf(array, heapSize);
+		Arrays.sort(sorted, Collections.reverseOrder(comparator));
+		return new ArrayList<>(Arrays.asList(sorted));
+	}
+
+	private void siftUp(int i) {
+		E element = element(i);
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			E parentValue = element(parent);
+			if (comparator.compare(parentValue, element) <= 0)
+				break;
+			array[i] = parentValue;
+			i = parent;
+		}
+		array[i] = element;
+	}
+
+	private void siftDown(int i) {
+		E element = element(i);
+		int half = heapSize >>> 1;
+		while (i < half) {
+			int son = (i << 1) + 1;
+			if (son + 1 < heapSize && comparator.compare(element(son + 1), element(son)) < 0)
+				++son;
+			E sonValue = element(son);
+			if (comparator.compare(element, sonValue) <= 0)
+				break;
+			array[i] = sonValue;
+			i = son;
+		}
+		array[i] = element;
+	}
+
+	@SuppressWarnings("unchecked")
+	private E element(int i) {
+		return (E) array[i];
+	}
+}
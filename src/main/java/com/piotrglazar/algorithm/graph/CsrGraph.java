@@ -0,0 +1,106 @@
+package com.piotrglazar.algorithm.graph;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Immutable weighted graph in compressed sparse row form: out-edges of vertex v are the edge indexes from
+ * {@link #firstEdge}(v) inclusive to {@link #endEdge}(v) exclusive, and targets and weights of edges are kept in
+ * parallel int arrays. Vertices are ints from 0 to vertexCount - 1 and weights are non-negative.
+ */
+public class CsrGraph {
+
+	private final int[] offsets;
+
+	private final int[] targets;
+
+	private final int[] weights;
+
+	private CsrGraph(int[] offsets, int[] targets, int[] weights) {
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+	}
+
+	/**
+	 * Creates a directed graph with edges sources[i] -> targets[i] of weight weights[i].
+	 */
+	public static CsrGraph directed(int vertexCount, int[] sources, int[] targets, int[] weights) {
+		return build(vertexCount, sources, targets, weights, false);
+	}
+
+	/**
+	 * Creates an undirected graph, that is a directed graph which holds every given edge in both directions.
+	 */
+	public static CsrGraph undirected(int vertexCount, int[] sources, int[] targets, int[] weights) {
+		return build(vertexCount, sources, targets, weights, true);
+	}
+
+	public int vertexCount() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Returns the number of directed edges, twice the number of given edges for undirected graphs.
+	 */
+	public int edgeCount() {
+		return targets.length;
+	}
+
+	public int firstEdge(int vertex) {
+		return offsets[vertex];
+	}
+
+	public int endEdge(int vertex) {
+		return offsets[vertex + 1];
+	}
+
+	public int outDegree(int vertex) {
+		return offsets[vertex + 1] - offsets[vertex];
+	}
+
+	public int target(int edge) {
+		return targets[edge];
+	}
+
+	public int weight(int edge) {
+		return weights[edge];
+	}
+
+	private static CsrGraph build(int vertexCount, int[] sources, int[] targets, int[] weights, boolean undirected) {
+		checkArgument(vertexCount >= 0, "Vertex count must not be negative, got %s", vertexCount);
+		checkArgument(sources.length == targets.length && sources.length == weights.length,
+				"Edge arrays differ in length: %s, %s, %s", sources.length, targets.length, weights.length);
+		long edgeCount = undirected ? 2L * sources.length : sources.length;
+		checkArgument(edgeCount <= Integer.MAX_VALUE, "Too many edges: %s", edgeCount);
+		int[] offsets = new int[vertexCount + 1];
+		for (int i = 0; i < sources.length; ++i) {
+			checkVertex(sources[i], vertexCount);
+			checkVertex(targets[i], vertexCount);
+			checkArgument(weights[i] >= 0, "Weight must not be negative, got %s", weights[i]);
+			++offsets[sources[i] + 1];
+			if (undirected)
+				++offsets[targets[i] + 1];
+		}
+		for (int v = 0; v < vertexCount; ++v)
+			offsets[v + 1] += offsets[v];
+		int[] csrTargets = new int[(int) edgeCount];
+		int[] csrWeights = new int[(int) edgeCount];
+		int[] next = new int[vertexCount];
+		System.arraycopy(offsets, 0, next, 0, vertexCount);
+		for (int i = 0; i < sources.length; ++i) {
+			int edge = next[sources[i]]++;
+			csrTargets[edge] = targets[i];
+			csrWeights[edge] = weights[i];
+			if (undirected) {
+				edge = next[targets[i]]++;
+				csrTargets[edge] = sources[i];
+				csrWeights[edge] = weights[i];
+			}
+		}
+		return new CsrGraph(offsets, csrTargets, csrWeights);
+	}
+
+	private static void checkVertex(int vertex, int vertexCount) {
+		checkArgument(vertex >= 0 && vertex < vertexCount, "Vertex %s out of range [0, %s)", vertex, vertexCount);
+	}
+}
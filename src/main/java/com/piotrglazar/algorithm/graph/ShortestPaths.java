@@ -0,0 +1,121 @@
+package com.piotrglazar.algorithm.graph;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.function.IntToLongFunction;
+
+import com.piotrglazar.algorithm.LongMaxHeap;
+
+/**
+ * Shortest paths from a single source in a {@link CsrGraph}, computed by Dijkstra's algorithm or A* search. Both keep
+ * every discovered vertex in a {@link LongMaxHeap} under its negated tentative distance and update its key in place
+ * when a shorter path is found, so the heap never holds more than one entry per vertex.
+ */
+public class ShortestPaths {
+
+	public static final long UNREACHABLE = Long.MAX_VALUE;
+
+	private static final int NONE = -1;
+
+	private final int source;
+
+	private final long[] distances;
+
+	private final int[] predecessors;
+
+	private ShortestPaths(int source, long[] distances, int[] predecessors) {
+		this.source = source;
+		this.distances = distances;
+		this.predecessors = predecessors;
+	}
+
+	/**
+	 * Computes distances from source to all vertices.
+	 */
+	public static ShortestPaths dijkstra(CsrGraph graph, int source) {
+		return search(graph, source, NONE, vertex -> 0);
+	}
+
+	/**
+	 * Computes the distance from source to target, guided by a heuristic which estimates the remaining distance to
+	 * target and never overestimates it. The search stops once target is polled, so only the distances of target and
+	 * vertices on its path are exact; other vertices may be unreachable or hold upper bounds. With a consistent
+	 * heuristic (h(u) <= w(u, v) + h(v)) every vertex is polled at most once.
+	 */
+	public static ShortestPaths aStar(CsrGraph graph, int source, int target, IntToLongFunction heuristic) {
+		checkVertex(graph, target);
+		return search(graph, source, target, heuristic);
+	}
+
+	public int source() {
+		return source;
+	}
+
+	public long distance(int vertex) {
+		return distances[vertex];
+	}
+
+	public boolean isReachable(int vertex) {
+		return distances[vertex] != UNREACHABLE;
+	}
+
+	/**
+	 * Returns the vertex preceding the given one on the shortest path, or -1 for the source and unreachable vertices.
+	 */
+	public int predecessor(int vertex) {
+		return predecessors[vertex];
+	}
+
+	/**
+	 * Returns vertices of the shortest path from source to target, both inclusive, or an empty array when target is
+	 * unreachable.
+	 */
+	public int[] path(int target) {
+		if (!isReachable(target))
+			return new int[0];
+		int length = 1;
+		for (int v = target; v != source; v = predecessors[v])
+			++length;
+		int[] path = new int[length];
+		for (int v = target, i = length - 1; i >= 0; v = predecessors[v], --i)
+			path[i] = v;
+		return path;
+	}
+
+	private static ShortestPaths search(CsrGraph graph, int source, int target, IntToLongFunction heuristic) {
+		checkVertex(graph, source);
+		int vertexCount = graph.vertexCount();
+		long[] distances = new long[vertexCount];
+		int[] predecessors = new int[vertexCount];
+		Arrays.fill(distances, UNREACHABLE);
+		Arrays.fill(predecessors, NONE);
+		LongMaxHeap heap = new LongMaxHeap(vertexCount);
+		distances[source] = 0;
+		heap.add(source, -heuristic.applyAsLong(source));
+		while (!heap.isEmpty()) {
+			int u = heap.poll();
+			if (u == target)
+				break;
+			for (int e = graph.firstEdge(u); e < graph.endEdge(u); ++e) {
+				int v = graph.target(e);
+				long distance = distances[u] + graph.weight(e);
+				if (distance < distances[v]) {
+					distances[v] = distance;
+					predecessors[v] = u;
+					long key = -(distance + heuristic.applyAsLong(v));
+					if (heap.contains(v))
+						heap.changeKey(v, key);
+					else
+						heap.add(v, key);
+				}
+			}
+		}
+		return new ShortestPaths(source, distances, predecessors);
+	}
+
+	private static void checkVertex(CsrGraph graph, int vertex) {
+		checkArgument(vertex >= 0 && vertex < graph.vertexCount(), "Vertex %s out of range [0, %s)", vertex,
+				graph.vertexCount());
+	}
+}
@@ -0,0 +1,103 @@
+package com.piotrglazar.algorithm.graph;
+
+import java.util.Arrays;
+
+import com.piotrglazar.algorithm.LongMaxHeap;
+
+/**
+ * Minimum spanning forest of an undirected {@link CsrGraph}, one tree per connected component, computed by Prim's
+ * algorithm. Vertices outside the tree are kept in a {@link LongMaxHeap} under the negated weight of their lightest edge
+ * to the tree, which is updated in place when a lighter edge is found.
+ */
+public class SpanningForest {
+
+	private static final int NONE = -1;
+
+	private final int[] parents;
+
+	private final int[] parentEdgeWeights;
+
+	private final long totalWeight;
+
+	private final int treeCount;
+
+	private SpanningForest(int[] parents, int[] parentEdgeWeights, long totalWeight, int treeCount) {
+		this.parents = parents;
+		this.parentEdgeWeights = parentEdgeWeights;
+		this.totalWeight = totalWeight;
+		this.treeCount = treeCount;
+	}
+
+	/**
+	 * Computes the forest; the graph must be undirected, that is hold every edge in both directions, as graphs created
+	 * by {@link CsrGraph#undirected} do.
+	 */
+	public static SpanningForest prim(CsrGraph graph) {
+		int vertexCount = graph.vertexCount();
+		int[] parents = new int[vertexCount];
+		int[] parentEdgeWeights = new int[vertexCount];
+		long[] lightest = new long[vertexCount];
+		boolean[] inTree = new boolean[vertexCount];
+		Arrays.fill(parents, NONE);
+		Arrays.fill(lightest, Long.MAX_VALUE);
+		LongMaxHeap heap = new LongMaxHeap(Math.max(1, vertexCount));
+		long totalWeight = 0;
+		int treeCount = 0;
+		for (int root = 0; root < vertexCount; ++root) {
+			if (inTree[root])
+				continue;
+			++treeCount;
+			heap.add(root, 0);
+			while (!heap.isEmpty()) {
+				int u = heap.poll();
+				inTree[u] = true;
+				if (parents[u] != NONE) {
+					parentEdgeWeights[u] = (int) lightest[u];
+					totalWeight += lightest[u];
+				}
+				for (int e = graph.firstEdge(u); e < graph.endEdge(u); ++e) {
+					int v = graph.target(e);
+					int weight = graph.weight(e);
+					if (!inTree[v] && weight < lightest[v]) {
+						lightest[v] = weight;
+						parents[v] = u;
+						if (heap.contains(v))
+							heap.changeKey(v, -weight);
+						else
+							heap.add(v, -weight);
+					}
+				}
+			}
+		}
+		return new SpanningForest(parents, parentEdgeWeights, totalWeight, treeCount);
+	}
+
+	/**
+	 * Returns the parent of the vertex in its tree, or -1 for tree roots.
+	 */
+	public int parent(int vertex) {
+		return parents[vertex];
+	}
+
+	/**
+	 * Returns the weight of the edge to the parent, or 0 for tree roots.
+	 */
+	public int parentEdgeWeight(int vertex) {
+		return parentEdgeWeights[vertex];
+	}
+
+	public long totalWeight() {
+		return totalWeight;
+	}
+
+	/**
+	 * Returns the number of trees, which is the number of connected components.
+	 */
+	public int treeCount() {
+		return treeCount;
+	}
+
+	public int edgeCount() {
+		return parents.length - treeCount;
+	}
+}
@@ -0,0 +1,104 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.TestUtils.integerComparator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.piotrglazar.algorithm.AddressableMaxHeap.Handle;
+
+public class AddressableMaxHeapTest {
+
+	@Test
+	public void shouldKeepDuplicatesApart() {
+		// given
+		AddressableMaxHeap<Integer> heap = new AddressableMaxHeap<>(integerComparator);
+		Handle<Integer> first = heap.offer(5);
+		Handle<Integer> second = heap.offer(5);
+		heap.offer(3);
+
+		// when
+		boolean removed = heap.remove(first);
+
+		// then
+		assertTrue("Element was not removed", removed);
+		assertFalse("Removed handle is still present", heap.contains(first));
+		assertTrue("Duplicate handle should be present", heap.contains(second));
+		assertEquals("Wrong heap size", 2, heap.size());
+		assertEquals("Wrong max", Integer.valueOf(5), heap.poll());
+		assertEquals("Wrong max", Integer.valueOf(3), heap.poll());
+		assertNull("Heap should be empty", heap.poll());
+	}
+
+	@Test
+	public void shouldChangeKeyInBothDirections() {
+		// given
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5, 9, 4 });
+		AddressableMaxHeap<ComparableClass> heap = new AddressableMaxHeap<>(2, ComparableClass.getComparator());
+		List<Handle<ComparableClass>> handles = new ArrayList<>();
+		for (ComparableClass ref : refs)
+			handles.add(heap.offer(ref));
+
+		// when
+		refs[1].setKey(10);
+		heap.changeKey(handles.get(1));
+		refs[3].setKey(0);
+		heap.changeKey(handles.get(3));
+
+		// then
+		assertSame("Increased key is not at the top of heap", refs[1], heap.poll());
+		int[] expected = { 5, 4, 3, 0 };
+		for (int key : expected)
+			assertEquals("Wrong key order", key, heap.poll().getKey());
+	}
+
+	@Test
+	public void shouldKeepHeapAfterRandomOperations() {
+		// given
+		Random random = new Random(11);
+		AddressableMaxHeap<ComparableClass> heap = new AddressableMaxHeap<>(ComparableClass.getComparator());
+		List<Handle<ComparableClass>> handles = new ArrayList<>();
+		for (int i = 0; i < 200; ++i)
+			handles.add(heap.offer(new ComparableClass(random.nextInt(50))));
+
+		// when
+		for (int i = 0; i < 300; ++i) {
+			Handle<ComparableClass> handle = handles.get(random.nextInt(handles.size()));
+			if (random.nextInt(4) == 0) {
+				heap.remove(handle);
+			} else if (heap.contains(handle)) {
+				handle.getElement().setKey(random.nextInt(50));
+				heap.changeKey(handle);
+			}
+		}
+
+		// then
+		int previous = Integer.MAX_VALUE;
+		while (!heap.isEmpty()) {
+			int current = heap.poll().getKey();
+			assertTrue("Elements were not polled in order", current <= previous);
+			previous = current;
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectHandleOfOtherHeap() {
+		// given
+		AddressableMaxHeap<Integer> heap = new AddressableMaxHeap<>(integerComparator);
+		AddressableMaxHeap<Integer> other = new AddressableMaxHeap<>(integerComparator);
+		Handle<Integer> handle = other.offer(1);
+
+		// when
+		heap.changeKey(handle);
+
+		// then exception
+	}
+}
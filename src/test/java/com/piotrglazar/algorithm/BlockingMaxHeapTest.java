@@ -0,0 +1,195 @@
+package com.piotrglazar.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class BlockingMaxHeapTest {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@After
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void shouldTakeGreatestElementsFirst() throws InterruptedException {
+		// given
+		BlockingMaxHeap<Integer> heap = new BlockingMaxHeap<>(Comparator.<Integer> naturalOrder());
+		heap.addAll(Arrays.asList(3, 9, 1, 7));
+
+		// when
+		List<Integer> taken = new ArrayList<>();
+		for (int i = 0; i < 4; ++i)
+			taken.add(heap.take());
+
+		// then
+		assertEquals("Wrong order", Arrays.asList(9, 7, 3, 1), taken);
+		assertNull("Poll should time out on empty heap", heap.poll(10, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void shouldWakeWaitingConsumer() throws Exception {
+		// given
+		BlockingMaxHeap<Integer> heap = new BlockingMaxHeap<>(Comparator.<Integer> naturalOrder());
+		Future<Integer> consumer = executor.submit(() -> heap.take());
+
+		// when
+		Thread.sleep(50);
+		heap.offer(42);
+
+		// then
+		assertEquals("Consumer should take offered element", Integer.valueOf(42), consumer.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void shouldBlockProducerUntilSpaceIsFreed() throws Exception {
+		// given
+		BlockingMaxHeap<Integer> heap = new BlockingMaxHeap<>(Comparator.<Integer> naturalOrder(), 2);
+		heap.put(1);
+		heap.put(2);
+		assertFalse("Full heap should reject offer", heap.offer(3));
+		assertFalse("Full heap should time out", heap.offer(3, 10, TimeUnit.MILLISECONDS));
+		Future<?> producer = executor.submit(() -> {
+			heap.put(5);
+			return null;
+		});
+
+		// when
+		Thread.sleep(50);
+		List<Integer> drained = new ArrayList<>();
+		heap.drainTo(drained);
+		producer.get(5, TimeUnit.SECONDS);
+
+		// then
+		assertEquals("Wrong drained elements", Arrays.asList(2, 1), drained);
+		assertEquals("Producer should add its element", Integer.valueOf(5), heap.poll());
+	}
+
+	@Test
+	public void shouldDrainBatchAfterWaiting() throws Exception {
+		// given
+		BlockingMaxHeap<Integer> heap = new BlockingMaxHeap<>(Comparator.<Integer> naturalOrder());
+		List<Integer> batch = new ArrayList<>();
+		Future<Integer> consumer = executor.submit(() -> heap.drainTo(batch, 2, 5, TimeUnit.SECONDS));
+
+		// when
+		Thread.sleep(50);
+		heap.offer(4);
+		int drained = consumer.get(5, TimeUnit.SECONDS);
+
+		// then
+		assertEquals("Wrong drained count", 1, drained);
+		assertEquals("Wrong batch", Collections.singletonList(4), batch);
+		assertEquals("Timed out drain should be empty", 0, heap.drainTo(batch, 2, 10, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void shouldDeliverEveryElementOnceToManyConsumers() throws Exception {
+		// given
+		int consumers = 64;
+		int elements = 20000;
+		BlockingMaxHeap<Integer> heap = new BlockingMaxHeap<>(Comparator.<Integer> naturalOrder(), 16);
+		CountDownLatch done = new CountDownLatch(consumers);
+		List<Future<List<Integer>>> results = new ArrayList<>();
+		for (int c = 0; c < consumers; ++c) {
+			results.add(executor.submit(() -> {
+				List<Integer> taken = new ArrayList<>();
+				for (Integer e = heap.take(); e >= 0; e = heap.take())
+					taken.add(e);
+				done.countDown();
+				return taken;
+			}));
+		}
+
+		// when
+		for (int e = 0; e < elements; ++e)
+			heap.put(e);
+		for (int c = 0; c < consumers; ++c)
+			heap.put(-1 - c);
+
+		// then
+		assertTrue("Consumers should finish", done.await(10, TimeUnit.SECONDS));
+		boolean[] seen = new boolean[elements];
+		int count = 0;
+		for (Future<List<Integer>> result : results) {
+			for (int e : result.get()) {
+				assertFalse("Element taken twice " + e, seen[e]);
+				seen[e] = true;
+				++count;
+			}
+		}
+		assertEquals("Every element should be taken", elements, count);
+		assertTrue("Heap should be empty", heap.isEmpty());
+	}
+
+	@Test
+	public void shouldRemoveAllGivenElements() {
+		// given
+		BlockingMaxHeap<Integer> heap = new BlockingMaxHeap<>(Comparator.<Integer> naturalOrder());
+		heap.addAll(Arrays.asList(3, 9, 1, 7, 5));
+
+		// when
+		boolean changed = heap.removeAll(Arrays.asList(9, 1, 4));
+
+		// then
+		assertTrue("Heap should change", changed);
+		assertEquals("Wrong size", 3, heap.size());
+		assertFalse("Removed element should not be present", heap.contains(9));
+		assertEquals("Wrong max", Integer.valueOf(7), heap.poll());
+	}
+
+	@Test
+	public void shouldRetainOnlyGivenElements() {
+		// given
+		BlockingMaxHeap<Integer> heap = new BlockingMaxHeap<>(Comparator.<Integer> naturalOrder());
+		heap.addAll(Arrays.asList(3, 9, 1, 7, 5));
+
+		// when
+		boolean changed = heap.retainAll(Arrays.asList(3, 5));
+
+		// then
+		assertTrue("Heap should change", changed);
+		assertEquals("Wrong size", 2, heap.size());
+		assertEquals("Wrong max", Integer.valueOf(5), heap.poll());
+		assertEquals("Wrong max", Integer.valueOf(3), heap.poll());
+	}
+
+	@Test
+	public void shouldRemoveMatchingElements() throws Exception {
+		// given
+		BlockingMaxHeap<Integer> heap = new BlockingMaxHeap<>(Comparator.<Integer> naturalOrder(), 4);
+		heap.addAll(Arrays.asList(3, 8, 1, 6));
+		Future<?> producer = executor.submit(() -> {
+			heap.put(10);
+			return null;
+		});
+
+		// when
+		boolean changed = heap.removeIf(e -> e % 2 == 0);
+
+		// then
+		assertTrue("Heap should change", changed);
+		producer.get(10, TimeUnit.SECONDS);
+		assertEquals("Wrong size", 3, heap.size());
+		assertEquals("Wrong max", Integer.valueOf(10), heap.poll());
+		assertEquals("Wrong max", Integer.valueOf(3), heap.poll());
+		assertEquals("Wrong max", Integer.valueOf(1), heap.poll());
+	}
+}
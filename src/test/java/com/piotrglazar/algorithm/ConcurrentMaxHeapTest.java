@@ -0,0 +1,225 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.TestUtils.integerComparator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ConcurrentMaxHeapTest {
+
+	private static final int THREADS = 4;
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+	@After
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void shouldPollElementsInOrder() {
+		// given
+		ConcurrentMaxHeap<Integer> heap = new ConcurrentMaxHeap<>(100, integerComparator);
+		for (int i = 0; i < 100; ++i)
+			heap.offer((i * 37) % 100);
+
+		// when
+		List<Integer> polled = new ArrayList<>();
+		while (!heap.isEmpty())
+			polled.add(heap.poll());
+
+		// then
+		for (int i = 0; i < 100; ++i)
+			assertEquals("Elements were not polled in order", Integer.valueOf(99 - i), polled.get(i));
+		assertNull("Heap should be empty", heap.poll());
+	}
+
+	@Test
+	public void shouldRejectElementsOverCapacity() {
+		// given
+		ConcurrentMaxHeap<Integer> heap = new ConcurrentMaxHeap<>(2, integerComparator);
+		heap.offer(1);
+		heap.offer(2);
+
+		// when
+		boolean offered = heap.offer(3);
+
+		// then
+		assertFalse("Heap should be full", offered);
+		assertEquals("Wrong heap size", 2, heap.size());
+	}
+
+	@Test
+	public void shouldIncreaseKeyForReferenceValue() {
+		// given
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5, 9, 4 });
+		ConcurrentMaxHeap<ComparableClass> heap = new ConcurrentMaxHeap<>(8, ComparableClass.getComparator());
+		for (ComparableClass ref : refs)
+			heap.offer(ref);
+
+		// when
+		refs[1].setKey(10);
+		heap.changeKey(refs[1]);
+
+		// then
+		assertSame("Value is not at the top of heap", refs[1], heap.peek());
+	}
+
+	@Test
+	public void shouldDecreaseKeyForReferenceValue() {
+		// given
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5, 9, 4, 7, 1 });
+		ConcurrentMaxHeap<ComparableClass> heap = new ConcurrentMaxHeap<>(8, ComparableClass.getComparator());
+		for (ComparableClass ref : refs)
+			heap.offer(ref);
+
+		// when
+		refs[3].setKey(0);
+		heap.changeKey(refs[3]);
+
+		// then
+		int[] expected = { 7, 5, 4, 3, 2, 1, 0 };
+		for (int key : expected)
+			assertEquals("Elements were not polled in order", key, heap.poll().getKey());
+	}
+
+	@Test
+	public void shouldOfferAndPollConcurrently() throws Exception {
+		// given
+		final int perThread = 5000;
+		final ConcurrentMaxHeap<Integer> heap = new ConcurrentMaxHeap<>(THREADS * perThread, integerComparator);
+		List<Future<List<Integer>>> futures = new ArrayList<>();
+
+		// when
+		for (int t = 0; t < THREADS; ++t) {
+			final int thread = t;
+			futures.add(executor.submit(new Callable<List<Integer>>() {
+
+				@Override
+				public List<Integer> call() {
+					List<Integer> polled = new ArrayList<>();
+					for (int i = 0; i < perThread; ++i) {
+						heap.offer(i * THREADS + thread);
+						if (i % 2 == 1)
+							polled.add(heap.poll());
+					}
+					return polled;
+				}
+			}));
+		}
+		Set<Integer> all = new HashSet<>();
+		for (Future<List<Integer>> future : futures)
+			all.addAll(future.get());
+		int previous = Integer.MAX_VALUE;
+		while (!heap.isEmpty()) {
+			int current = heap.poll();
+			assertTrue("Elements were not polled in order", current < previous);
+			previous = current;
+			all.add(current);
+		}
+
+		// then
+		assertEquals("Elements were lost or duplicated", THREADS * perThread, all.size());
+	}
+
+	@Test
+	public void shouldChangeKeysConcurrently() throws Exception {
+		// given
+		final int elements = 1000;
+		final ConcurrentMaxHeap<ComparableClass> heap = new ConcurrentMaxHeap<>(elements,
+				ComparableClass.getComparator());
+		final ComparableClass[] refs = new ComparableClass[elements];
+		for (int i = 0; i < elements; ++i) {
+			refs[i] = new ComparableClass(i);
+			heap.offer(refs[i]);
+		}
+		List<Future<Void>> futures = new ArrayList<>();
+
+		// when
+		for (int t = 0; t < THREADS; ++t) {
+			final int thread = t;
+			futures.add(executor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					for (int i = thread; i < elements; i += THREADS) {
+						refs[i].setKey(refs[i].getKey() + elements);
+						heap.changeKey(refs[i]);
+					}
+					return null;
+				}
+			}));
+		}
+		for (Future<Void> future : futures)
+			future.get();
+
+		// then
+		for (int i = elements - 1; i >= 0; --i)
+			assertSame("Elements were not polled in order", refs[i], heap.poll());
+	}
+
+	@Test
+	public void shouldChangeKeysInBothDirectionsConcurrently() throws Exception {
+		// given
+		final int elements = 1000;
+		final ConcurrentMaxHeap<ComparableClass> heap = new ConcurrentMaxHeap<>(elements,
+				ComparableClass.getComparator());
+		final ComparableClass[] refs = new ComparableClass[elements];
+		for (int i = 0; i < elements; ++i) {
+			refs[i] = new ComparableClass(i);
+			heap.offer(refs[i]);
+		}
+		List<Future<Void>> futures = new ArrayList<>();
+
+		// when
+		for (int t = 0; t < THREADS; ++t) {
+			final int thread = t;
+			futures.add(executor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() {
+					for (int i = thread; i < elements; i += THREADS) {
+						refs[i].setKey(elements - 1 - i);
+						heap.changeKey(refs[i]);
+					}
+					return null;
+				}
+			}));
+		}
+		for (Future<Void> future : futures)
+			future.get();
+
+		// then
+		for (int i = 0; i < elements; ++i)
+			assertSame("Elements were not polled in order", refs[i], heap.poll());
+	}
+
+	@Test
+	public void shouldReverseBitsWithinLevel() {
+		// given
+		int[] expected = { 1, 2, 3, 4, 6, 5, 7, 8, 12, 10, 14 };
+
+		// when
+		int[] slots = new int[expected.length];
+		for (int i = 0; i < expected.length; ++i)
+			slots[i] = ConcurrentMaxHeap.slot(i + 1);
+
+		// then
+		for (int i = 0; i < expected.length; ++i)
+			assertEquals("Wrong slot", expected[i], slots[i]);
+	}
+}
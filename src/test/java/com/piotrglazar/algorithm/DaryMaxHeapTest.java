@@ -0,0 +1,140 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.TestUtils.integerComparator;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DaryMaxHeapTest {
+
+	private static final int[] ARITIES = { 2, 3, 4, 8 };
+
+	@Test
+	public void shouldPollElementsInOrder() {
+		for (int arity : ARITIES) {
+			// given
+			List<Integer> ints = randomInts(100);
+			DaryMaxHeap<Integer> heap = new DaryMaxHeap<>(arity, integerComparator);
+			for (Integer i : ints)
+				heap.add(i);
+
+			// when
+			List<Integer> polled = pollAll(heap);
+
+			// then
+			assertSortedDescending(ints, polled);
+		}
+	}
+
+	@Test
+	public void shouldBuildHeapFromCollection() {
+		for (int arity : ARITIES) {
+			// given
+			List<Integer> ints = randomInts(100);
+
+			// when
+			DaryMaxHeap<Integer> heap = DaryMaxHeap.buildHeap(arity, ints, integerComparator);
+
+			// then
+			assertHeap(heap);
+			assertTrue("Heap should contain elements used to its creation", heap.containsAll(ints));
+		}
+	}
+
+	@Test
+	public void shouldRemoveElementsFromMiddle() {
+		for (int arity : ARITIES) {
+			// given
+			List<Integer> ints = randomInts(50);
+			DaryMaxHeap<Integer> heap = DaryMaxHeap.buildHeap(arity, ints, integerComparator);
+
+			// when
+			for (int i = 0; i < 20; ++i)
+				assertTrue("Element was not removed", heap.remove(ints.get(i)));
+
+			// then
+			assertHeap(heap);
+			assertEquals("Wrong heap size", 30, heap.size());
+			assertFalse("Removed element is still present", heap.contains(ints.get(0)));
+			assertSortedDescending(ints.subList(20, 50), pollAll(heap));
+		}
+	}
+
+	@Test
+	public void shouldIncreaseKeyForReferenceValue() {
+		// given
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5, 9, 4, 7, 1 });
+		DaryMaxHeap<ComparableClass> heap = new DaryMaxHeap<>(4, ComparableClass.getComparator());
+		heap.addAll(asList(refs));
+		refs = heap.toArray(refs);
+
+		// when
+		ComparableClass lastOne = refs[refs.length - 1];
+		lastOne.setKey(10);
+		heap.changeKey(lastOne);
+
+		// then
+		assertTrue("Value is not at the top of heap", lastOne == heap.peek());
+	}
+
+	@Test
+	public void shouldRetainAll() {
+		// given
+		List<Integer> ints = randomInts(40);
+		DaryMaxHeap<Integer> heap = DaryMaxHeap.buildHeap(4, ints, integerComparator);
+
+		// when
+		heap.retainAll(ints.subList(0, 10));
+
+		// then
+		assertEquals("Wrong heap size", 10, heap.size());
+		assertSortedDescending(ints.subList(0, 10), pollAll(heap));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectUnaryHeap() {
+		// given
+
+		// when
+		new DaryMaxHeap<>(1, integerComparator);
+
+		// then exception
+	}
+
+	private void assertHeap(DaryMaxHeap<Integer> heap) {
+		Integer[] array = heap.toArray(new Integer[heap.size()]);
+		for (int son = 1; son < array.length; ++son)
+			assertTrue(String.format("%s is not heap", Arrays.toString(array)),
+					array[(son - 1) / heap.arity()] >= array[son]);
+	}
+
+	private List<Integer> pollAll(DaryMaxHeap<Integer> heap) {
+		List<Integer> polled = new ArrayList<>();
+		while (!heap.isEmpty())
+			polled.add(heap.poll());
+		return polled;
+	}
+
+	private void assertSortedDescending(List<Integer> ints, List<Integer> polled) {
+		List<Integer> expected = new ArrayList<>(ints);
+		Collections.sort(expected, Collections.reverseOrder());
+		assertEquals("Elements were not polled in order", expected, polled);
+	}
+
+	private List<Integer> randomInts(int toGenerate) {
+		List<Integer> ints = new ArrayList<>();
+		for (int i = 0; i < toGenerate; ++i)
+			ints.add(i);
+		Collections.shuffle(ints, new Random(toGenerate));
+		return ints;
+	}
+}
@@ -0,0 +1,162 @@
+package com.piotrglazar.algorithm;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class DoubleKeyedMaxHeapTest {
+
+	private static final double DELTA = 1e-9;
+
+	@Test
+	public void shouldExtractKeyOncePerElement() {
+		// given
+		final AtomicInteger extractions = new AtomicInteger();
+		DoubleKeyedMaxHeap<ComparableClass> heap = new DoubleKeyedMaxHeap<>(ref -> {
+			extractions.incrementAndGet();
+			return ref.getKey() / 2.0;
+		});
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5, 9, 4, 7, 1, 8 });
+
+		// when
+		heap.addAll(asList(refs));
+		List<Integer> polled = new ArrayList<>();
+		while (!heap.isEmpty())
+			polled.add(heap.poll().getKey());
+
+		// then
+		assertEquals("Key should be extracted once per element", refs.length, extractions.get());
+		assertEquals("Elements were not polled in order", asList(9, 8, 7, 5, 4, 3, 2, 1), polled);
+	}
+
+	@Test
+	public void shouldOrderByDoubleKey() {
+		// given
+		DoubleKeyedMaxHeap<String> heap = new DoubleKeyedMaxHeap<>(Double::parseDouble);
+
+		// when
+		heap.addAll(asList("1.5", "-2", "NaN", "3.25", "0", "-0"));
+
+		// then
+		assertEquals("Wrong max", "NaN", heap.poll());
+		assertEquals("Wrong max", "3.25", heap.poll());
+		assertEquals("Wrong max", "1.5", heap.poll());
+		assertEquals("Wrong max", "0", heap.poll());
+		assertEquals("Wrong max", "-0", heap.poll());
+		assertEquals("Wrong max", "-2", heap.poll());
+	}
+
+	@Test
+	public void shouldChangeKeyInBothDirections() {
+		// given
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5, 9, 4 });
+		DoubleKeyedMaxHeap<ComparableClass> heap = new DoubleKeyedMaxHeap<>(ComparableClass::getKey);
+		for (ComparableClass ref : refs)
+			heap.offer(ref);
+
+		// when
+		refs[1].setKey(10);
+		heap.changeKey(refs[1]);
+		refs[1].setKey(0);
+		heap.changeKey(refs[1]);
+
+		// then
+		assertEquals("Wrong cached key", 0, heap.key(refs[1]), DELTA);
+		assertSame("Wrong max", refs[3], heap.peek());
+	}
+
+	@Test
+	public void shouldHashElementsOnlyToAddLookUpAndRemoveThem() {
+		// given
+		Random random = new Random(15);
+		AtomicInteger hashCodes = new AtomicInteger();
+		DoubleKeyedMaxHeap<ComparableClass> heap = new DoubleKeyedMaxHeap<>(ref -> ref.getKey() / 2.0);
+		List<ComparableClass> refs = new ArrayList<>();
+		for (int i = 0; i < 1000; ++i)
+			refs.add(new HashCountingClass(random.nextInt(1000), hashCodes));
+
+		// when
+		for (ComparableClass ref : refs)
+			heap.offer(ref);
+		for (int i = 0; i < 500; ++i) {
+			ComparableClass ref = refs.get(random.nextInt(refs.size()));
+			ref.setKey(random.nextInt(1000));
+			heap.changeKey(ref);
+		}
+		int previous = Integer.MAX_VALUE;
+		while (!heap.isEmpty()) {
+			int current = heap.poll().getKey();
+			assertTrue("Elements were not polled in order", current <= previous);
+			previous = current;
+		}
+
+		// then
+		assertEquals("Elements should be hashed once per offer, changeKey and poll", 1000 + 500 + 1000,
+				hashCodes.get());
+	}
+
+	@Test
+	public void shouldLeaveHeapUnchangedWhenBulkAddIsRejected() {
+		// given
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5 });
+		DoubleKeyedMaxHeap<ComparableClass> heap = new DoubleKeyedMaxHeap<>(ComparableClass::getKey);
+		heap.offer(refs[0]);
+
+		// when
+		try {
+			heap.addAll(asList(refs[1], refs[2], refs[0]));
+			fail("Element already present should be rejected");
+		} catch (IllegalStateException expected) {
+			// then
+		}
+		assertEquals("Wrong size", 1, heap.size());
+		assertFalse("Rejected batch should not be added", heap.contains(refs[1]));
+		heap.addAll(asList(refs[1], refs[2]));
+		assertSame("Wrong max", refs[2], heap.poll());
+		assertSame("Wrong max", refs[0], heap.poll());
+		assertSame("Wrong max", refs[1], heap.poll());
+	}
+
+	@Test
+	public void shouldKeepOrderAfterRandomOperations() {
+		// given
+		Random random = new Random(23);
+		DoubleKeyedMaxHeap<ComparableClass> heap = new DoubleKeyedMaxHeap<>(ComparableClass::getKey);
+		List<ComparableClass> refs = new ArrayList<>();
+		for (int i = 0; i < 300; ++i) {
+			refs.add(new ComparableClass(random.nextInt(1000)));
+			heap.offer(refs.get(i));
+		}
+
+		// when
+		for (int i = 0; i < 1000; ++i) {
+			ComparableClass ref = refs.get(random.nextInt(refs.size()));
+			if (!heap.contains(ref))
+				continue;
+			if (random.nextInt(10) == 0) {
+				assertTrue("Element was not removed", heap.remove(ref));
+			} else {
+				ref.setKey(random.nextInt(1000));
+				heap.changeKey(ref);
+			}
+		}
+
+		// then
+		int previous = Integer.MAX_VALUE;
+		while (!heap.isEmpty()) {
+			int current = heap.poll().getKey();
+			assertTrue("Elements were not polled in order", current <= previous);
+			previous = current;
+		}
+	}
+}
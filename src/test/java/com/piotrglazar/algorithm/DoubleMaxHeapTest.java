@@ -0,0 +1,53 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.Heaps.isMaxHeap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DoubleMaxHeapTest {
+
+	@Test
+	public void shouldKeepHeapWhileChangingKeys() {
+		// given
+		Random random = new Random(7);
+		DoubleMaxHeap heap = new DoubleMaxHeap();
+		for (int id = 0; id < 100; ++id)
+			heap.add(id, random.nextDouble());
+
+		// when
+		for (int i = 0; i < 100; ++i)
+			heap.changeKey(random.nextInt(100), random.nextDouble() * 2 - 0.5);
+
+		// then
+		double[] heapInternal = heap.toKeyArray();
+		assertTrue(String.format("%s is not heap", Arrays.toString(heapInternal)), isMaxHeap(heapInternal));
+	}
+
+	@Test
+	public void shouldPollNaNFirst() {
+		// given
+		DoubleMaxHeap heap = new DoubleMaxHeap();
+		heap.add(0, 1.0);
+		heap.add(1, Double.NaN);
+		heap.add(2, Double.POSITIVE_INFINITY);
+
+		// when
+		int first = heap.poll();
+		int second = heap.poll();
+
+		// then
+		assertEquals("NaN should be greatest", 1, first);
+		assertEquals("Infinity should be second", 2, second);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectIdWhichCannotBeIndexed() {
+		// when
+		new DoubleMaxHeap().add(Integer.MAX_VALUE, 1.0);
+	}
+}
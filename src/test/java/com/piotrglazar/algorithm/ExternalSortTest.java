@@ -0,0 +1,109 @@
+package com.piotrglazar.algorithm;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExternalSortTest {
+
+	private static final long SMALL_BUDGET = 2 * ExternalSort.MIN_WINDOW_BYTES;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Random random = new Random(19);
+
+	@Test
+	public void shouldSortInMemoryWhenInputFitsBudget() throws IOException {
+		// given
+		List<Long> longs = randomLongs(1000);
+		ExternalSort<Long> sort = new ExternalSort<>(Comparator.<Long> naturalOrder(), Serializer.longs(), 1 << 20,
+				folder.getRoot().toPath());
+
+		// when
+		List<Long> sorted = new ArrayList<>();
+		sort.sort(longs.iterator(), sorted::add);
+
+		// then
+		assertEquals("Elements are not sorted", sortedCopy(longs), sorted);
+	}
+
+	@Test
+	public void shouldMergeSpilledRunsInManyPasses() throws IOException {
+		// given
+		List<Long> longs = randomLongs(100000);
+		ExternalSort<Long> sort = new ExternalSort<>(Comparator.<Long> naturalOrder(), Serializer.longs(),
+				SMALL_BUDGET, folder.getRoot().toPath());
+
+		// when
+		List<Long> sorted = new ArrayList<>();
+		sort.sort(longs.iterator(), sorted::add);
+
+		// then
+		assertEquals("Elements are not sorted", sortedCopy(longs), sorted);
+		assertEquals("Temporary files should be deleted", 0, folder.getRoot().list().length);
+	}
+
+	@Test
+	public void shouldSortRecordsLargerThanBuffers() throws IOException {
+		// given
+		List<String> strings = new ArrayList<>();
+		for (int i = 0; i < 2000; ++i)
+			strings.add("żółw-" + random.nextInt() + "-😀");
+		StringBuilder huge = new StringBuilder();
+		for (int i = 0; i < (3 << 20) / 3; ++i)
+			huge.append('ą');
+		strings.add(huge.toString());
+		strings.add("a" + huge);
+		Collections.shuffle(strings, random);
+		ExternalSort<String> sort = new ExternalSort<>(Comparator.<String> naturalOrder(), Serializer.strings(),
+				SMALL_BUDGET, folder.getRoot().toPath());
+
+		// when
+		List<String> sorted = new ArrayList<>();
+		sort.sort(strings.iterator(), sorted::add);
+
+		// then
+		assertEquals("Elements are not sorted", sortedCopy(strings), sorted);
+	}
+
+	@Test
+	public void shouldKeepUnpairedSurrogates() throws IOException {
+		// given
+		List<String> strings = new ArrayList<>();
+		for (int i = 0; i < 20000; ++i)
+			strings.add("a\uD800b-" + random.nextInt() + "-\uDC00-😀" + (char) (0xD800 + random.nextInt(0x800)));
+		strings.add("\uDBFF");
+		ExternalSort<String> sort = new ExternalSort<>(Comparator.<String> naturalOrder(), Serializer.strings(),
+				SMALL_BUDGET, folder.getRoot().toPath());
+
+		// when
+		List<String> sorted = new ArrayList<>();
+		sort.sort(strings.iterator(), sorted::add);
+
+		// then
+		assertEquals("Elements are not sorted", sortedCopy(strings), sorted);
+	}
+
+	private List<Long> randomLongs(int size) {
+		List<Long> longs = new ArrayList<>(size);
+		for (int i = 0; i < size; ++i)
+			longs.add(random.nextLong());
+		return longs;
+	}
+
+	private static <E extends Comparable<E>> List<E> sortedCopy(List<E> elements) {
+		List<E> sorted = new ArrayList<>(elements);
+		Collections.sort(sorted);
+		return sorted;
+	}
+}
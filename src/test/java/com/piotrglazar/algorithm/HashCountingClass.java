@@ -0,0 +1,22 @@
+package com.piotrglazar.algorithm;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts calls to {@link #hashCode()}, to check how often a heap runs user code.
+ */
+public class HashCountingClass extends ComparableClass {
+
+	private final AtomicInteger hashCodes;
+
+	public HashCountingClass(int key, AtomicInteger hashCodes) {
+		super(key);
+		this.hashCodes = hashCodes;
+	}
+
+	@Override
+	public int hashCode() {
+		hashCodes.incrementAndGet();
+		return super.hashCode();
+	}
+}
@@ -0,0 +1,148 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.TestUtils.integerComparator;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.piotrglazar.algorithm.HeapMetrics.Operation;
+import com.piotrglazar.algorithm.HeapMetrics.Snapshot;
+
+public class HeapMetricsTest {
+
+	private MaxHeap<Integer> heap;
+
+	private HeapMetrics metrics;
+
+	@Before
+	public void createHeap() {
+		heap = new MaxHeap<>(integerComparator);
+		metrics = new HeapMetrics();
+	}
+
+	@Test
+	public void shouldCountComparisonsAndSwapsOfOffers() {
+		// given
+		heap.enableMetrics(metrics);
+
+		// when
+		heap.addAll(asList(1));
+		heap.add(2);
+		heap.add(3);
+		Snapshot snapshot = metrics.snapshot();
+
+		// then
+		assertEquals("Wrong number of offers", 2, snapshot.operations(Operation.OFFER));
+		assertEquals("Wrong number of comparisons", 2, snapshot.comparisons(Operation.OFFER));
+		assertEquals("Wrong number of swaps", 2, snapshot.swaps(Operation.OFFER));
+		assertArrayEquals("Wrong sift depths", new long[] { 0, 2 },
+				Arrays.copyOf(snapshot.siftDepthHistogram(Operation.OFFER), 2));
+		assertEquals("Wrong number of bulk additions", 1, snapshot.operations(Operation.ADD_ALL));
+	}
+
+	@Test
+	public void shouldCountPollsAndRemovals() {
+		// given
+		heap.addAll(asList(7, 6, 5, 4, 3, 2, 1));
+		heap.enableMetrics(metrics);
+
+		// when
+		heap.poll();
+		heap.remove(1);
+		Snapshot snapshot = metrics.snapshot();
+
+		// then
+		assertEquals("Wrong number of polls", 1, snapshot.operations(Operation.POLL));
+		assertEquals("Wrong number of removals", 1, snapshot.operations(Operation.REMOVE));
+		assertEquals("Every comparison should be counted", snapshot.comparisons(Operation.POLL)
+				+ snapshot.comparisons(Operation.REMOVE), snapshot.comparisons());
+		assertTrue("Removing a leaf should move it up", snapshot.swaps(Operation.REMOVE) >= 2);
+		assertEquals("Wrong size", 5, snapshot.size());
+		assertEquals("Wrong peak size", 7, snapshot.peakSize());
+	}
+
+	@Test
+	public void shouldNotifyListeners() {
+		// given
+		final List<Operation> operations = new ArrayList<>();
+		final List<Integer> sizes = new ArrayList<>();
+		metrics.addListener((operation, comparisons, swaps, size) -> {
+			operations.add(operation);
+			sizes.add(size);
+		});
+		heap.enableMetrics(metrics);
+
+		// when
+		heap.add(1);
+		heap.add(2);
+		heap.changeKey(1);
+		heap.poll();
+		heap.drainTo(new ArrayList<Integer>());
+
+		// then
+		assertEquals("Wrong operations", asList(Operation.OFFER, Operation.OFFER, Operation.CHANGE_KEY, Operation.POLL,
+				Operation.DRAIN), operations);
+		assertEquals("Wrong sizes", asList(1, 2, 2, 1, 0), sizes);
+	}
+
+	@Test
+	public void shouldStopCountingWhenDisabled() {
+		// given
+		heap.enableMetrics(metrics);
+		heap.add(1);
+
+		// when
+		heap.disableMetrics();
+		heap.add(2);
+		heap.add(3);
+
+		// then
+		assertNull("Metrics should be detached", heap.metrics());
+		assertEquals("Offers after disabling should not be counted", 1, metrics.snapshot().operations(Operation.OFFER));
+		assertEquals("Comparisons after disabling should not be counted", 0, metrics.snapshot().comparisons());
+	}
+
+	@Test
+	public void shouldEstimateFootprintFromPeakSize() {
+		// given
+		heap.enableMetrics(metrics);
+		Snapshot empty = metrics.snapshot();
+
+		// when
+		for (int i = 0; i < 1000; ++i)
+			heap.add(i);
+		Snapshot full = metrics.snapshot();
+		heap.clear();
+		Snapshot cleared = metrics.snapshot();
+
+		// then
+		assertTrue("Footprint should grow with elements",
+				full.estimatedFootprintBytes() > empty.estimatedFootprintBytes() + 1000 * 32);
+		assertEquals("Array does not shrink", full.estimatedArrayBytes(), cleared.estimatedArrayBytes());
+		assertTrue("Index nodes are released", cleared.estimatedIndexBytes() < full.estimatedIndexBytes());
+	}
+
+	@Test
+	public void shouldResetCounters() {
+		// given
+		heap.enableMetrics(metrics);
+		heap.addAll(asList(3, 1, 2));
+
+		// when
+		metrics.reset();
+
+		// then
+		Snapshot snapshot = metrics.snapshot();
+		assertEquals("Comparisons should be zeroed", 0, snapshot.comparisons());
+		assertEquals("Size should be kept", 3, snapshot.size());
+	}
+}
@@ -0,0 +1,139 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.TestUtils.integerComparator;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HeapsTest {
+
+	private final Random random = new Random(17);
+
+	@Test
+	public void shouldHeapSortLazily() {
+		// given
+		List<Integer> ints = Arrays.asList(randomIntegers(1000));
+		List<Integer> expected = Heaps.heapSort(ints, integerComparator);
+
+		// when
+		Iterator<Integer> sorted = Heaps.lazyHeapSort(ints, integerComparator);
+		List<Integer> first = new ArrayList<>();
+		for (int i = 0; i < 10; ++i)
+			first.add(sorted.next());
+
+		// then
+		assertEquals("Wrong greatest elements", expected.subList(0, 10), first);
+		int remaining = 0;
+		while (sorted.hasNext()) {
+			assertEquals("Elements are not sorted", expected.get(10 + remaining), sorted.next());
+			++remaining;
+		}
+		assertEquals("Wrong number of elements", 990, remaining);
+	}
+
+	@Test
+	public void shouldHeapSortObjectArrayInPlace() {
+		// given
+		Integer[] array = randomIntegers(1000);
+		Integer[] expected = array.clone();
+		Arrays.sort(expected);
+
+		// when
+		Heaps.heapSort(array, integerComparator);
+
+		// then
+		assertArrayEquals("Array is not sorted", expected, array);
+	}
+
+	@Test
+	public void shouldHeapSortPrimitiveArraysInPlace() {
+		// given
+		int[] ints = new int[1000];
+		long[] longs = new long[1000];
+		for (int i = 0; i < ints.length; ++i) {
+			ints[i] = random.nextInt();
+			longs[i] = random.nextLong();
+		}
+		int[] expectedInts = ints.clone();
+		long[] expectedLongs = longs.clone();
+		Arrays.sort(expectedInts);
+		Arrays.sort(expectedLongs);
+
+		// when
+		Heaps.heapSort(ints);
+		Heaps.heapSort(longs);
+
+		// then
+		assertArrayEquals("Array is not sorted", expectedInts, ints);
+		assertArrayEquals("Array is not sorted", expectedLongs, longs);
+	}
+
+	@Test
+	public void shouldHeapSortRandomAccessListInPlace() {
+		// given
+		List<Integer> list = new ArrayList<>(Arrays.asList(randomIntegers(1000)));
+		List<Integer> expected = new ArrayList<>(list);
+		expected.sort(integerComparator);
+
+		// when
+		Heaps.heapSortInPlace(list, integerComparator);
+
+		// then
+		assertEquals("List is not sorted", expected, list);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectSequentialList() {
+		// given
+		List<Integer> list = new LinkedList<>(Arrays.asList(3, 1, 2));
+
+		// when
+		Heaps.heapSortInPlace(list, integerComparator);
+
+		// then exception
+	}
+
+	@Test
+	public void shouldParallelHeapSortLargeArrays() {
+		// given
+		int size = 10 * ParallelHeapSort.THRESHOLD + 7;
+		Integer[] objects = randomIntegers(size);
+		int[] ints = new int[size];
+		long[] longs = new long[size];
+		for (int i = 0; i < size; ++i) {
+			ints[i] = objects[i];
+			longs[i] = (long) objects[i] << 20;
+		}
+		Integer[] expectedObjects = objects.clone();
+		int[] expectedInts = ints.clone();
+		long[] expectedLongs = longs.clone();
+		Arrays.sort(expectedObjects);
+		Arrays.sort(expectedInts);
+		Arrays.sort(expectedLongs);
+
+		// when
+		Heaps.parallelHeapSort(objects, integerComparator);
+		Heaps.parallelHeapSort(ints);
+		Heaps.parallelHeapSort(longs);
+
+		// then
+		assertArrayEquals("Array is not sorted", expectedObjects, objects);
+		assertArrayEquals("Array is not sorted", expectedInts, ints);
+		assertArrayEquals("Array is not sorted", expectedLongs, longs);
+	}
+
+	private Integer[] randomIntegers(int size) {
+		Integer[] array = new Integer[size];
+		for (int i = 0; i < size; ++i)
+			array[i] = random.nextInt(size);
+		return array;
+	}
+}
@@ -0,0 +1,173 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.TestUtils.integerComparator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LeftistMaxHeapTest {
+
+	@Test
+	public void shouldPollElementsInOrder() {
+		// given
+		LeftistMaxHeap<Integer> heap = new LeftistMaxHeap<>(integerComparator);
+		for (int i = 0; i < 100; ++i)
+			heap.offer((i * 37) % 100);
+
+		// when
+		List<Integer> polled = new ArrayList<>();
+		while (!heap.isEmpty())
+			polled.add(heap.poll());
+
+		// then
+		for (int i = 0; i < 100; ++i)
+			assertEquals("Elements were not polled in order", Integer.valueOf(99 - i), polled.get(i));
+	}
+
+	@Test
+	public void shouldMeldSiblingsAndKeepChangeKey() {
+		// given
+		LeftistMaxHeap<ComparableClass> heap = new LeftistMaxHeap<>(ComparableClass.getComparator());
+		LeftistMaxHeap<ComparableClass> sibling = heap.newSibling();
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5, 9, 4, 8 });
+		for (int i = 0; i < refs.length; ++i)
+			(i % 2 == 0 ? heap : sibling).offer(refs[i]);
+		assertFalse("Sibling element should not belong to heap", heap.contains(refs[1]));
+
+		// when
+		heap.meld(sibling);
+		refs[1].setKey(10);
+		heap.changeKey(refs[1]);
+
+		// then
+		assertTrue("Sibling should be empty", sibling.isEmpty());
+		assertFalse("Melded element should not belong to sibling", sibling.contains(refs[1]));
+		assertTrue("Melded element should belong to heap", heap.contains(refs[3]));
+		assertEquals("Wrong heap size", refs.length, heap.size());
+		assertSame("Value is not at the top of heap", refs[1], heap.poll());
+		assertEquals("Wrong max", 9, heap.poll().getKey());
+	}
+
+	@Test
+	public void shouldMeldHeapsWithSeparateIndexes() {
+		// given
+		LeftistMaxHeap<Integer> heap = new LeftistMaxHeap<>(integerComparator);
+		LeftistMaxHeap<Integer> other = new LeftistMaxHeap<>(integerComparator);
+		for (int i = 0; i < 10; ++i) {
+			heap.offer(2 * i);
+			other.offer(2 * i + 1);
+		}
+
+		// when
+		heap.meld(other);
+		heap.remove(19);
+
+		// then
+		assertTrue("Other heap should be empty", other.isEmpty());
+		assertEquals("Wrong heap size", 19, heap.size());
+		assertEquals("Wrong max", Integer.valueOf(18), heap.poll());
+		other.offer(19);
+		assertTrue("Other heap should accept element again", other.contains(19));
+	}
+
+	@Test
+	public void shouldMeldLargerHeapWithSeparateIndexIntoSmallerOne() {
+		// given
+		LeftistMaxHeap<Integer> heap = new LeftistMaxHeap<>(integerComparator);
+		LeftistMaxHeap<Integer> other = new LeftistMaxHeap<>(integerComparator);
+		heap.offer(-1);
+		for (int i = 0; i < 50; ++i)
+			other.offer(i);
+
+		// when
+		heap.meld(other);
+		heap.remove(49);
+
+		// then
+		assertEquals("Wrong heap size", 50, heap.size());
+		assertTrue("Heap should contain own element", heap.contains(-1));
+		assertTrue("Heap should contain melded element", heap.contains(7));
+		assertFalse("Other heap should not contain melded element", other.contains(7));
+		assertEquals("Wrong max", Integer.valueOf(48), heap.poll());
+	}
+
+	@Test
+	public void shouldLeaveBothHeapsUsableWhenMeldIsRejected() {
+		// given
+		LeftistMaxHeap<Integer> heap = new LeftistMaxHeap<>(integerComparator);
+		LeftistMaxHeap<Integer> other = new LeftistMaxHeap<>(integerComparator);
+		for (int i = 0; i < 10; ++i)
+			heap.offer(i);
+		for (int i = 2; i < 5; ++i)
+			other.offer(3 * i);
+
+		// when
+		try {
+			heap.meld(other);
+			fail("Meld of heaps sharing an element should be rejected");
+		} catch (IllegalStateException expected) {
+			// then
+		}
+		assertEquals("Heap size should not change", 10, heap.size());
+		assertEquals("Other heap size should not change", 3, other.size());
+		assertTrue("Other heap should keep its elements", other.contains(6) && other.contains(12));
+		assertFalse("Heap should not get other's elements", heap.contains(12));
+		heap.remove(9);
+		other.remove(12);
+		assertEquals("Wrong max", Integer.valueOf(8), heap.poll());
+		assertEquals("Wrong max", Integer.valueOf(9), other.poll());
+	}
+
+	@Test
+	public void shouldKeepOrderAfterRandomOperations() {
+		// given
+		Random random = new Random(13);
+		LeftistMaxHeap<ComparableClass> heap = new LeftistMaxHeap<>(ComparableClass.getComparator());
+		List<LeftistMaxHeap<ComparableClass>> parts = new ArrayList<>();
+		List<ComparableClass> refs = new ArrayList<>();
+		for (int p = 0; p < 4; ++p) {
+			LeftistMaxHeap<ComparableClass> part = heap.newSibling();
+			for (int i = 0; i < 100; ++i) {
+				ComparableClass ref = new ComparableClass(random.nextInt(1000));
+				refs.add(ref);
+				part.offer(ref);
+			}
+			parts.add(part);
+		}
+		for (LeftistMaxHeap<ComparableClass> part : parts)
+			heap.meld(part);
+
+		// when
+		for (int i = 0; i < 1000; ++i) {
+			ComparableClass ref = refs.get(random.nextInt(refs.size()));
+			if (!heap.contains(ref))
+				continue;
+			if (random.nextInt(10) == 0) {
+				assertTrue("Element was not removed", heap.remove(ref));
+			} else {
+				ref.setKey(random.nextInt(1000));
+				heap.changeKey(ref);
+			}
+		}
+
+		// then
+		int size = heap.size();
+		int polled = 0;
+		int previous = Integer.MAX_VALUE;
+		while (!heap.isEmpty()) {
+			int current = heap.poll().getKey();
+			assertTrue("Elements were not polled in order", current <= previous);
+			previous = current;
+			++polled;
+		}
+		assertEquals("Elements were lost", size, polled);
+	}
+}
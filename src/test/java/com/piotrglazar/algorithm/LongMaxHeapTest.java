@@ -0,0 +1,149 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.Heaps.isMaxHeap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LongMaxHeapTest {
+
+	private LongMaxHeap heap;
+
+	@Before
+	public void createHeap() {
+		heap = new LongMaxHeap(4);
+	}
+
+	@Test
+	public void shouldAddElementsToHeap() {
+		// given
+		long[] keys = { 4, 1, 3, 8, 7, 2 };
+
+		// when
+		for (int id = 0; id < keys.length; ++id)
+			heap.add(id, keys[id]);
+
+		// then
+		assertHeap();
+		assertEquals("Wrong heap size", keys.length, heap.size());
+		assertEquals("Wrong max id", 3, heap.peekId());
+		assertEquals("Wrong max key", 8, heap.peekKey());
+	}
+
+	@Test
+	public void shouldPollIdsInKeyOrder() {
+		// given
+		long[] keys = randomKeys(50);
+		for (int id = 0; id < keys.length; ++id)
+			heap.add(id, keys[id]);
+
+		// when
+		long[] polled = new long[keys.length];
+		for (int i = 0; i < keys.length; ++i)
+			polled[i] = keys[heap.poll()];
+
+		// then
+		long[] sorted = keys.clone();
+		Arrays.sort(sorted);
+		for (int i = 0; i < keys.length; ++i)
+			assertEquals("Wrong key order", sorted[keys.length - 1 - i], polled[i]);
+		assertTrue("Heap should be empty", heap.isEmpty());
+	}
+
+	@Test
+	public void shouldIncreaseAndDecreaseKey() {
+		// given
+		long[] keys = { 3, 2, 5, 9, Long.MIN_VALUE };
+		for (int id = 0; id < keys.length; ++id)
+			heap.add(id, keys[id]);
+
+		// when
+		heap.changeKey(1, Long.MAX_VALUE);
+		heap.changeKey(3, 0);
+
+		// then
+		assertHeap();
+		assertEquals("Increased key is not at the top of heap", 1, heap.peekId());
+		assertEquals("Wrong key", 0, heap.key(3));
+	}
+
+	@Test
+	public void shouldRemoveElementFromMiddle() {
+		// given
+		long[] keys = randomKeys(20);
+		for (int id = 0; id < keys.length; ++id)
+			heap.add(id, keys[id]);
+
+		// when
+		boolean removed = heap.remove(7);
+
+		// then
+		assertTrue("Element was not removed", removed);
+		assertFalse("Heap should not contain removed element", heap.contains(7));
+		assertFalse("Element cannot be removed twice", heap.remove(7));
+		assertEquals("Wrong heap size", keys.length - 1, heap.size());
+		assertHeap();
+	}
+
+	@Test
+	public void shouldReuseIdsAfterClear() {
+		// given
+		heap.add(0, 1);
+		heap.add(1, 2);
+
+		// when
+		heap.clear();
+		heap.add(1, 5);
+
+		// then
+		assertFalse("Heap should not contain cleared element", heap.contains(0));
+		assertEquals("Wrong max id", 1, heap.peekId());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldFailWhenAddingDuplicateId() {
+		// given
+		heap.add(0, 1);
+
+		// when
+		heap.add(0, 2);
+
+		// then exception
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectIdWhichCannotBeIndexed() {
+		// when
+		heap.add(Integer.MAX_VALUE, 1);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void shouldFailWhenPollingFromEmpty() {
+		// given
+
+		// when
+		heap.poll();
+
+		// then exception
+	}
+
+	private void assertHeap() {
+		long[] heapInternal = heap.toKeyArray();
+		assertTrue(String.format("%s is not heap", Arrays.toString(heapInternal)), isMaxHeap(heapInternal));
+	}
+
+	private long[] randomKeys(int toGenerate) {
+		Random random = new Random(toGenerate);
+		long[] keys = new long[toGenerate];
+		for (int i = 0; i < toGenerate; ++i)
+			keys[i] = random.nextLong();
+		return keys;
+	}
+}
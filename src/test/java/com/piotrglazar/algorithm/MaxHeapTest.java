@@ -6,20 +6,53 @@ import static com.piotrglazar.algorithm.MaxHeap.buildHeap;
 import static com.piotrglazar.algorithm.TestUtils.integerComparator;
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Random;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class MaxHeapTest {
 
+	private static final Serializer<Integer> INTEGERS = new Serializer<Integer>() {
+
+		@Override
+		public int size(Integer element) {
+			return 4;
+		}
+
+		@Override
+		public void write(Integer element, ByteBuffer buffer) {
+			buffer.putInt(element);
+		}
+
+		@Override
+		public Integer read(ByteBuffer buffer) {
+			return buffer.getInt();
+		}
+	};
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	private MaxHeap<Integer> heap;
 
 	@Before
@@ -147,6 +180,67 @@ public class MaxHeapTest {
 		assertTrue("Value is not at the top of heap", lastOne == refs[0]);
 	}
 
+	@Test
+	public void shouldDecreaseKeyForReferenceValue() {
+		// given
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5, 9, 4 });
+		MaxHeap<ComparableClass> heap = buildHeap(asList(refs), ComparableClass.getComparator());
+
+		// when
+		ComparableClass top = heap.peek();
+		top.setKey(0);
+		heap.changeKey(top);
+
+		// then
+		assertEquals("Wrong top of heap", 5, heap.peek().getKey());
+		assertEquals("Decreased value should be polled last", asList(5, 4, 3, 2, 0), keys(heap.pollBatch(5)));
+	}
+
+	@Test
+	public void shouldChangeManyKeys() {
+		for (int changed : new int[] { 2, 50 }) {
+			// given
+			ComparableClass[] refs = ComparableClass.fromInts(randomInts(50));
+			MaxHeap<ComparableClass> heap = buildHeap(asList(refs), ComparableClass.getComparator());
+
+			// when
+			for (int i = 0; i < changed; ++i)
+				refs[i].setKey(refs[i].getKey() % 2 == 0 ? refs[i].getKey() + 100 : refs[i].getKey() - 100);
+			heap.changeKeys(asList(refs).subList(0, changed));
+
+			// then
+			List<Integer> polled = keys(heap.pollBatch(refs.length));
+			assertEquals("Wrong heap size", refs.length, polled.size());
+			assertTrue("Array is not sorted", isArraySorted(polled.toArray(new Integer[polled.size()])));
+		}
+	}
+
+	@Test
+	public void shouldPollBatchAndDrainRest() {
+		// given
+		Integer[] ints = randomInts(20);
+		heap.addAll(asList(ints));
+
+		// when
+		List<Integer> batch = heap.pollBatch(5);
+		List<Integer> rest = new ArrayList<>();
+		int drained = heap.drainTo(rest);
+
+		// then
+		assertEquals("Wrong batch size", 5, batch.size());
+		assertEquals("Wrong drained count", 15, drained);
+		assertTrue("Heap should be empty", heap.isEmpty());
+		batch.addAll(rest);
+		assertTrue("Array is not sorted", isArraySorted(batch.toArray(new Integer[ints.length])));
+	}
+
+	private List<Integer> keys(List<ComparableClass> refs) {
+		List<Integer> keys = new ArrayList<>();
+		for (ComparableClass ref : refs)
+			keys.add(ref.getKey());
+		return keys;
+	}
+
 	@Test
 	public void shouldHeapSort() {
 		// given
@@ -171,6 +265,41 @@ public class MaxHeapTest {
 		assertHeap(ints.size());
 	}
 
+	@Test
+	public void shouldIndexElementsOfBuiltHeap() {
+		// given
+		ComparableClass[] refs = ComparableClass.fromInts(randomInts(20));
+		MaxHeap<ComparableClass> heap = buildHeap(asList(refs), ComparableClass.getComparator());
+		refs = heap.toArray(refs);
+
+		// when
+		ComparableClass lastOne = refs[refs.length - 1];
+		lastOne.setKey(1000);
+		heap.changeKey(lastOne);
+
+		// then
+		refs = heap.toArray(refs);
+		assertTrue("Value is not at the top of heap", lastOne == refs[0]);
+		assertTrue("Heap does not contain elements used to its creation", heap.containsAll(asList(refs)));
+	}
+
+	@Test
+	public void shouldAddAllToNonEmptyHeapAndRemainHeap() {
+		// given
+		Integer[] ints = randomInts(30);
+		Integer[] firstPart = Arrays.copyOfRange(ints, 0, 5);
+		Integer[] secondPart = Arrays.copyOfRange(ints, 5, ints.length);
+		heap.addAll(asList(firstPart));
+
+		// when
+		heap.addAll(asList(secondPart));
+
+		// then
+		assertHeap(ints.length);
+		assertEquals("Wrong heap size", ints.length, heap.size());
+		assertTrue("Heap should contain elements", heap.containsAll(asList(ints)));
+	}
+
 	@Test
 	public void shouldContainValueInHeap() {
 		// given
@@ -294,4 +423,241 @@ public class MaxHeapTest {
 			assertHeap(ints.length);
 		}
 	}
+
+	@Test
+	public void shouldForgetPolledLastElement() {
+		// given
+		heap.add(1);
+
+		// when
+		heap.poll();
+
+		// then
+		assertFalse("Polled element should not be present", heap.contains(1));
+	}
+
+	@Test
+	public void shouldIterateInSortedOrderWithoutModifyingHeap() {
+		// given
+		List<Integer> ints = new ArrayList<>();
+		for (int i = 0; i < 100; ++i)
+			ints.add((i * 37) % 100);
+		heap.addAll(ints);
+		Integer[] before = heap.toArray(new Integer[0]);
+
+		// when
+		List<Integer> sorted = new ArrayList<>();
+		for (Iterator<Integer> iterator = heap.sortedIterator(); iterator.hasNext();)
+			sorted.add(iterator.next());
+
+		// then
+		assertEquals("Elements are not sorted", heapSort(ints, integerComparator), sorted);
+		assertTrue("Heap should not be modified", Arrays.equals(before, heap.toArray(new Integer[0])));
+	}
+
+	@Test
+	public void shouldStreamGreatestElementsLazily() {
+		// given
+		for (int i = 0; i < 1000; ++i)
+			heap.add(i);
+
+		// when
+		List<Integer> top = heap.sortedStream().limit(3).collect(Collectors.toList());
+
+		// then
+		assertEquals("Wrong greatest elements", asList(999, 998, 997), top);
+		assertEquals("Heap should not be modified", 1000, heap.size());
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void shouldFailWhenHeapIsModifiedDuringSortedIteration() {
+		// given
+		heap.addAll(asList(1, 2, 3));
+		Iterator<Integer> iterator = heap.sortedIterator();
+		iterator.next();
+
+		// when
+		heap.poll();
+		iterator.next();
+	}
+
+	@Test
+	public void shouldRestoreSnapshotInHeapOrder() throws IOException {
+		// given
+		for (int i = 0; i < 1000; ++i)
+			heap.add((i * 7919) % 1000);
+		Path file = folder.getRoot().toPath().resolve("heap");
+		heap.snapshot(file, INTEGERS);
+
+		// when
+		MaxHeap<Integer> restored = MaxHeap.restore(file, INTEGERS, integerComparator);
+
+		// then
+		assertTrue("Heap order should be kept",
+				Arrays.equals(heap.toArray(new Integer[0]), restored.toArray(new Integer[0])));
+		assertTrue("Restored element should be found", restored.contains(500));
+		restored.remove(999);
+		restored.add(2000);
+		assertEquals("Wrong max", Integer.valueOf(2000), restored.poll());
+		assertEquals("Wrong max", Integer.valueOf(998), restored.poll());
+		assertEquals("Wrong size", 998, restored.size());
+	}
+
+	@Test
+	public void shouldPollRestoredHeapWithoutIndex() throws IOException {
+		// given
+		heap.addAll(asList(5, 3, 8, 1));
+		Path file = folder.getRoot().toPath().resolve("heap");
+		heap.snapshot(file, INTEGERS);
+		MaxHeap<Integer> restored = MaxHeap.restore(file, INTEGERS, integerComparator);
+
+		// when
+		List<Integer> polled = new ArrayList<>();
+		restored.drainTo(polled, 2);
+		restored.add(4);
+
+		// then
+		assertEquals("Wrong polled elements", asList(8, 5), polled);
+		assertFalse("Polled element should not be found", restored.contains(8));
+		assertTrue("Added element should be found", restored.contains(4));
+		restored.changeKey(4);
+		assertEquals("Wrong max", Integer.valueOf(4), restored.poll());
+	}
+
+	@Test
+	public void shouldDeleteTemporaryFileWhenSnapshotFails() throws IOException {
+		// given
+		Path file = folder.getRoot().toPath().resolve("heap");
+		MaxHeap<Integer> heap = buildHeap(asList(1, 2, 3), integerComparator);
+		Serializer<Integer> failing = new Serializer<Integer>() {
+
+			@Override
+			public int size(Integer element) {
+				return 4;
+			}
+
+			@Override
+			public void write(Integer element, ByteBuffer target) {
+				throw new IllegalStateException("Cannot serialize " + element);
+			}
+
+			@Override
+			public Integer read(ByteBuffer source) {
+				throw new UnsupportedOperationException();
+			}
+		};
+
+		// when
+		try {
+			heap.snapshot(file, failing);
+			fail("Failing serializer should fail snapshot");
+		} catch (IllegalStateException expected) {
+			// then
+		}
+		assertEquals("No file should be left behind", 0, folder.getRoot().list().length);
+	}
+
+	@Test(expected = IOException.class)
+	public void shouldRejectFileWhichIsNotSnapshot() throws IOException {
+		// given
+		Path file = folder.newFile().toPath();
+		Files.write(file, new byte[] { 1, 2, 3 });
+
+		// when
+		MaxHeap.restore(file, INTEGERS, integerComparator);
+	}
+
+	@Test
+	public void shouldSkipLazilyRemovedElements() {
+		// given
+		MaxHeap<Integer> heap = buildHeap(asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10), integerComparator);
+		heap.enableLazyDeletion(0.9);
+
+		// when
+		heap.remove(10);
+		heap.remove(9);
+		heap.remove(4);
+
+		// then
+		assertEquals("Wrong size", 7, heap.size());
+		assertFalse("Removed element should not be present", heap.contains(9));
+		assertFalse("Removed element should not be removed twice", heap.remove(9));
+		assertEquals("Wrong max", Integer.valueOf(8), heap.peek());
+		assertTrue("Present elements should be found", heap.containsAll(asList(1, 8)));
+		assertFalse("Removed element should not be found", heap.containsAll(asList(1, 4)));
+		List<Integer> polled = new ArrayList<>();
+		while (!heap.isEmpty())
+			polled.add(heap.poll());
+		assertEquals("Wrong poll order", asList(8, 7, 6, 5, 3, 2, 1), polled);
+	}
+
+	@Test
+	public void shouldCompactWhenTombstonesPassFraction() {
+		// given
+		MaxHeap<Integer> heap = buildHeap(asList(1, 2, 3, 4, 5, 6, 7, 8), integerComparator);
+		HeapMetrics metrics = new HeapMetrics();
+		heap.enableMetrics(metrics);
+		heap.enableLazyDeletion(0.25);
+
+		// when
+		heap.remove(1);
+		heap.remove(2);
+		long compactionsBefore = metrics.snapshot().operations(HeapMetrics.Operation.COMPACT);
+		heap.remove(3);
+
+		// then
+		assertEquals("Should not compact below fraction", 0, compactionsBefore);
+		assertEquals("Should compact above fraction", 1, metrics.snapshot().operations(HeapMetrics.Operation.COMPACT));
+		assertEquals("Wrong size", 5, heap.size());
+		assertTrue("Heap should hold present elements only", isMaxHeap(heap.toArray(new Integer[0])));
+		assertEquals("Wrong elements", new TreeSet<>(asList(4, 5, 6, 7, 8)), new TreeSet<>(asList(heap.toArray(
+				new Integer[0]))));
+	}
+
+	@Test
+	public void shouldAddLazilyRemovedElementAgain() {
+		// given
+		MaxHeap<ComparableClass> heap = new MaxHeap<>(ComparableClass.getComparator());
+		ComparableClass element = new ComparableClass(5);
+		heap.addAll(asList(new ComparableClass(3), element, new ComparableClass(7)));
+		heap.enableLazyDeletion(0.9);
+		heap.remove(element);
+
+		// when
+		element.setKey(10);
+		heap.add(element);
+
+		// then
+		assertEquals("Wrong size", 3, heap.size());
+		assertEquals("Re-added element should be max", element, heap.poll());
+		heap.disableLazyDeletion();
+		assertEquals("Wrong size", 2, heap.size());
+	}
+
+	@Test
+	public void shouldMatchEagerHeapWithLazyDeletion() {
+		// given
+		Random random = new Random(25);
+		MaxHeap<Integer> eager = new MaxHeap<>(integerComparator);
+		MaxHeap<Integer> lazy = new MaxHeap<>(integerComparator);
+		lazy.enableLazyDeletion(0.3);
+
+		for (int step = 0; step < 20000; ++step) {
+			// when
+			int value = random.nextInt(500);
+			int operation = random.nextInt(3);
+			if (operation == 0 && !eager.contains(value)) {
+				eager.add(value);
+				lazy.add(value);
+			} else if (operation == 1) {
+				assertEquals("Remove results differ", eager.remove(value), lazy.remove(value));
+			} else if (operation == 2) {
+				assertEquals("Polled elements differ", eager.poll(), lazy.poll());
+			}
+
+			// then
+			assertEquals("Sizes differ", eager.size(), lazy.size());
+			assertEquals("Max elements differ", eager.peek(), lazy.peek());
+		}
+	}
 }
@@ -0,0 +1,162 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.TestUtils.integerComparator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MinMaxHeapTest {
+
+	@Test
+	public void shouldPollFromBothEnds() {
+		// given
+		MinMaxHeap<Integer> heap = new MinMaxHeap<>(integerComparator);
+		List<Integer> ints = shuffledInts(100);
+		heap.addAll(ints);
+
+		// when
+		List<Integer> polled = new ArrayList<>();
+		for (int i = 0; i < 50; ++i) {
+			polled.add(heap.pollMin());
+			polled.add(heap.pollMax());
+		}
+
+		// then
+		for (int i = 0; i < 50; ++i) {
+			assertEquals("Wrong min", Integer.valueOf(i), polled.get(2 * i));
+			assertEquals("Wrong max", Integer.valueOf(99 - i), polled.get(2 * i + 1));
+		}
+		assertNull("Heap should be empty", heap.poll());
+	}
+
+	@Test
+	public void shouldPeekBothEnds() {
+		// given
+		MinMaxHeap<Integer> heap = new MinMaxHeap<>(integerComparator);
+
+		// when
+		heap.addAll(shuffledInts(10));
+
+		// then
+		assertEquals("Wrong min", Integer.valueOf(0), heap.peekMin());
+		assertEquals("Wrong max", Integer.valueOf(9), heap.peekMax());
+		assertEquals("Peek should return max", Integer.valueOf(9), heap.peek());
+	}
+
+	@Test
+	public void shouldKeepOrderAfterRandomOperations() {
+		// given
+		Random random = new Random(19);
+		MinMaxHeap<ComparableClass> heap = new MinMaxHeap<>(ComparableClass.getComparator());
+		List<ComparableClass> refs = new ArrayList<>();
+		for (int i = 0; i < 300; ++i) {
+			refs.add(new ComparableClass(random.nextInt(1000)));
+			heap.offer(refs.get(i));
+		}
+
+		// when
+		for (int i = 0; i < 1000; ++i) {
+			ComparableClass ref = refs.get(random.nextInt(refs.size()));
+			if (!heap.contains(ref))
+				continue;
+			if (random.nextInt(10) == 0) {
+				assertTrue("Element was not removed", heap.remove(ref));
+			} else {
+				ref.setKey(random.nextInt(1000));
+				heap.changeKey(ref);
+			}
+		}
+
+		// then
+		int min = Integer.MIN_VALUE;
+		int max = Integer.MAX_VALUE;
+		while (!heap.isEmpty()) {
+			int currentMin = heap.pollMin().getKey();
+			assertTrue("Minimums were not polled in order", currentMin >= min);
+			min = currentMin;
+			if (heap.isEmpty())
+				break;
+			int currentMax = heap.pollMax().getKey();
+			assertTrue("Maximums were not polled in order", currentMax <= max);
+			max = currentMax;
+		}
+	}
+
+	@Test
+	public void shouldIncreaseKeyForReferenceValue() {
+		// given
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5, 9, 4 });
+		MinMaxHeap<ComparableClass> heap = new MinMaxHeap<>(ComparableClass.getComparator());
+		for (ComparableClass ref : refs)
+			heap.offer(ref);
+
+		// when
+		refs[1].setKey(10);
+		heap.changeKey(refs[1]);
+		refs[3].setKey(0);
+		heap.changeKey(refs[3]);
+
+		// then
+		assertSame("Wrong max", refs[1], heap.peekMax());
+		assertSame("Wrong min", refs[3], heap.peekMin());
+	}
+
+	private List<Integer> shuffledInts(int count) {
+		List<Integer> ints = new ArrayList<>();
+		for (int i = 0; i < count; ++i)
+			ints.add(i);
+		Collections.shuffle(ints, new Random(count));
+		return ints;
+	}
+
+	@Test
+	public void shouldKeepMinMaxOrderAfterRandomRemovesAndKeyChanges() {
+		// given
+		Random random = new Random(14);
+		MinMaxHeap<ComparableClass> heap = new MinMaxHeap<>(ComparableClass.getComparator());
+		List<ComparableClass> refs = new ArrayList<>();
+		for (int i = 0; i < 200; ++i) {
+			refs.add(new ComparableClass(random.nextInt(100)));
+			heap.offer(refs.get(i));
+		}
+
+		for (int i = 0; i < 2000; ++i) {
+			// when
+			ComparableClass ref = refs.get(random.nextInt(refs.size()));
+			if (!heap.contains(ref)) {
+				heap.offer(ref);
+			} else if (random.nextInt(3) == 0) {
+				assertTrue("Element was not removed", heap.remove(ref));
+			} else {
+				ref.setKey(random.nextInt(100));
+				heap.changeKey(ref);
+			}
+
+			// then
+			assertTrue("Min-max order is broken", isMinMaxHeap(heap.toArray()));
+		}
+	}
+
+	private static boolean isMinMaxHeap(Object[] array) {
+		for (int i = 1; i < array.length; ++i) {
+			int key = ((ComparableClass) array[i]).getKey();
+			boolean minLevel = true;
+			for (int level = 31 - Integer.numberOfLeadingZeros(i + 1); level > 0; --level) {
+				int ancestor = ((i + 1) >>> level) - 1;
+				int ancestorKey = ((ComparableClass) array[ancestor]).getKey();
+				if (minLevel ? ancestorKey > key : ancestorKey < key)
+					return false;
+				minLevel = !minLevel;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,134 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.TestUtils.integerComparator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class MultiQueueTest {
+
+	@Test
+	public void shouldBeExactWithSingleShard() {
+		// given
+		MultiQueue<Integer> queue = new MultiQueue<>(1, integerComparator);
+		for (int i = 0; i < 100; ++i)
+			queue.offer((i * 37) % 100);
+
+		// when
+		List<Integer> polled = new ArrayList<>();
+		while (!queue.isEmpty())
+			polled.add(queue.poll());
+
+		// then
+		for (int i = 0; i < 100; ++i)
+			assertEquals("Elements were not polled in order", Integer.valueOf(99 - i), polled.get(i));
+		assertNull("Queue should be empty", queue.poll());
+	}
+
+	@Test
+	public void shouldPollAllElementsFromManyShards() {
+		// given
+		MultiQueue<Integer> queue = new MultiQueue<>(8, integerComparator);
+		for (int i = 0; i < 1000; ++i)
+			queue.offer(i);
+
+		// when
+		Set<Integer> polled = new HashSet<>();
+		Integer e;
+		while ((e = queue.poll()) != null)
+			polled.add(e);
+
+		// then
+		assertEquals("Elements were lost", 1000, polled.size());
+		assertTrue("Queue should be empty", queue.isEmpty());
+	}
+
+	@Test
+	public void shouldPollApproximatelyGreatest() {
+		// given
+		int shards = 4;
+		MultiQueue<Integer> queue = new MultiQueue<>(shards, integerComparator);
+		for (int i = 0; i < 10000; ++i)
+			queue.offer(i);
+
+		// when
+		int worstRank = 0;
+		for (int i = 0; i < 1000; ++i)
+			worstRank = Math.max(worstRank, 9999 - i - queue.poll());
+
+		// then
+		assertTrue("Rank error too big: " + worstRank, worstRank < 100 * shards);
+	}
+
+	@Test
+	public void shouldChangeKeyAndRemove() {
+		// given
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5, 9, 4 });
+		MultiQueue<ComparableClass> queue = new MultiQueue<>(1, ComparableClass.getComparator());
+		for (ComparableClass ref : refs)
+			queue.offer(ref);
+
+		// when
+		refs[1].setKey(10);
+		queue.changeKey(refs[1]);
+		boolean removed = queue.remove(refs[3]);
+
+		// then
+		assertTrue("Element was not removed", removed);
+		assertFalse("Removed element is still present", queue.contains(refs[3]));
+		assertEquals("Wrong size", 4, queue.size());
+		assertSame("Value is not at the top of queue", refs[1], queue.poll());
+	}
+
+	@Test
+	public void shouldOfferAndPollConcurrently() throws Exception {
+		// given
+		final int threads = 4;
+		final int perThread = 5000;
+		final MultiQueue<Integer> queue = new MultiQueue<>(2 * threads, integerComparator);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		List<Future<List<Integer>>> futures = new ArrayList<>();
+
+		// when
+		for (int t = 0; t < threads; ++t) {
+			final int thread = t;
+			futures.add(executor.submit(new Callable<List<Integer>>() {
+
+				@Override
+				public List<Integer> call() {
+					List<Integer> polled = new ArrayList<>();
+					for (int i = 0; i < perThread; ++i) {
+						queue.offer(i * threads + thread);
+						if (i % 2 == 1)
+							polled.add(queue.poll());
+					}
+					return polled;
+				}
+			}));
+		}
+		Set<Integer> all = new HashSet<>();
+		for (Future<List<Integer>> future : futures)
+			all.addAll(future.get());
+		executor.shutdown();
+		Integer e;
+		while ((e = queue.poll()) != null)
+			all.add(e);
+
+		// then
+		all.remove(null);
+		assertEquals("Elements were lost or duplicated", threads * perThread, all.size());
+	}
+}
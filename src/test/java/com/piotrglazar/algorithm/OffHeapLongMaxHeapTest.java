@@ -0,0 +1,130 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.Heaps.isMaxHeap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OffHeapLongMaxHeapTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void shouldPollIdsInKeyOrder() {
+		// given
+		OffHeapLongMaxHeap heap = OffHeapLongMaxHeap.allocateDirect(100, 100);
+		long[] keys = randomKeys(100);
+		for (int id = 0; id < keys.length; ++id)
+			heap.add(id, keys[id]);
+
+		// when
+		long[] polled = new long[keys.length];
+		for (int i = 0; i < keys.length; ++i)
+			polled[i] = keys[heap.poll()];
+
+		// then
+		long[] sorted = keys.clone();
+		Arrays.sort(sorted);
+		for (int i = 0; i < keys.length; ++i)
+			assertEquals("Wrong key order", sorted[keys.length - 1 - i], polled[i]);
+	}
+
+	@Test
+	public void shouldChangeKeysAndRemoveAcrossSegments() throws IOException {
+		// given
+		OffHeapLongMaxHeap heap = new OffHeapLongMaxHeap(1000, 1000, 4, 5, null);
+
+		// when
+		exercise(heap);
+
+		// then
+		assertHeap(heap);
+	}
+
+	@Test
+	public void shouldWorkOnMappedFile() throws IOException {
+		// given
+		Path file = folder.newFile().toPath();
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		// when
+		try (OffHeapLongMaxHeap heap = new OffHeapLongMaxHeap(1000, 1000, 6, 7, channel)) {
+			exercise(heap);
+
+			// then
+			assertHeap(heap);
+		}
+	}
+
+	@Test
+	public void shouldCreateMappedHeap() throws IOException {
+		// given
+		Path file = folder.newFile().toPath();
+
+		// when
+		try (OffHeapLongMaxHeap heap = OffHeapLongMaxHeap.mapped(file, 10, 20)) {
+			heap.add(19, 5);
+			heap.add(3, 7);
+
+			// then
+			assertEquals("Wrong max id", 3, heap.peekId());
+			assertEquals("Wrong key", 5, heap.key(19));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void shouldFailWhenFull() {
+		// given
+		OffHeapLongMaxHeap heap = OffHeapLongMaxHeap.allocateDirect(1, 2);
+		heap.add(0, 1);
+
+		// when
+		heap.add(1, 2);
+
+		// then exception
+	}
+
+	private void exercise(OffHeapLongMaxHeap heap) {
+		Random random = new Random(5);
+		for (int id = 0; id < 1000; ++id)
+			heap.add(id, random.nextInt(10000));
+		for (int i = 0; i < 2000; ++i)
+			heap.changeKey(random.nextInt(1000), random.nextInt(10000));
+		for (int id = 0; id < 1000; id += 3)
+			assertTrue("Element was not removed", heap.remove(id));
+		assertFalse("Removed element is still present", heap.contains(0));
+		assertEquals("Wrong heap size", 666, heap.size());
+	}
+
+	private void assertHeap(OffHeapLongMaxHeap heap) {
+		long[] heapInternal = heap.toKeyArray();
+		assertTrue(String.format("%s is not heap", Arrays.toString(heapInternal)), isMaxHeap(heapInternal));
+		long previous = Long.MAX_VALUE;
+		while (!heap.isEmpty()) {
+			long current = heap.peekKey();
+			heap.poll();
+			assertTrue("Elements were not polled in order", current <= previous);
+			previous = current;
+		}
+	}
+
+	private long[] randomKeys(int count) {
+		Random random = new Random(count);
+		long[] keys = new long[count];
+		for (int i = 0; i < count; ++i)
+			keys[i] = random.nextLong();
+		return keys;
+	}
+}
@@ -0,0 +1,175 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.TestUtils.integerComparator;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class PairingMaxHeapTest {
+
+	@Test
+	public void shouldPollElementsInOrder() {
+		// given
+		PairingMaxHeap<Integer> heap = new PairingMaxHeap<>(integerComparator);
+		for (int i = 0; i < 100; ++i)
+			heap.offer((i * 37) % 100);
+
+		// when
+		List<Integer> polled = new ArrayList<>();
+		while (!heap.isEmpty())
+			polled.add(heap.poll());
+
+		// then
+		for (int i = 0; i < 100; ++i)
+			assertEquals("Elements were not polled in order", Integer.valueOf(99 - i), polled.get(i));
+	}
+
+	@Test
+	public void shouldKeepOrderAfterRandomKeyChanges() {
+		// given
+		Random random = new Random(3);
+		PairingMaxHeap<ComparableClass> heap = new PairingMaxHeap<>(ComparableClass.getComparator());
+		List<ComparableClass> refs = new ArrayList<>();
+		for (int i = 0; i < 300; ++i) {
+			refs.add(new ComparableClass(random.nextInt(1000)));
+			heap.offer(refs.get(i));
+		}
+		heap.poll();
+
+		// when
+		for (int i = 0; i < 1000; ++i) {
+			ComparableClass ref = refs.get(random.nextInt(refs.size()));
+			if (!heap.contains(ref))
+				continue;
+			if (random.nextInt(10) == 0) {
+				assertTrue("Element was not removed", heap.remove(ref));
+			} else {
+				ref.setKey(random.nextInt(1000));
+				heap.changeKey(ref);
+			}
+		}
+
+		// then
+		assertPolledInOrder(heap);
+	}
+
+	@Test
+	public void shouldMeldHeaps() {
+		// given
+		PairingMaxHeap<Integer> heap = new PairingMaxHeap<>(integerComparator);
+		PairingMaxHeap<Integer> other = new PairingMaxHeap<>(integerComparator);
+		for (int i = 0; i < 10; ++i) {
+			heap.offer(2 * i);
+			other.offer(2 * i + 1);
+		}
+		other.offer(100);
+
+		// when
+		heap.meld(other);
+
+		// then
+		assertTrue("Other heap should be empty", other.isEmpty());
+		assertEquals("Wrong heap size", 21, heap.size());
+		assertTrue("Heap should contain melded element", heap.contains(7));
+		assertEquals("Wrong max", Integer.valueOf(100), heap.poll());
+		assertEquals("Wrong max", Integer.valueOf(19), heap.poll());
+	}
+
+	@Test
+	public void shouldLeaveBothHeapsUsableWhenMeldIsRejected() {
+		// given
+		PairingMaxHeap<Integer> heap = new PairingMaxHeap<>(integerComparator);
+		PairingMaxHeap<Integer> other = new PairingMaxHeap<>(integerComparator);
+		for (int i = 0; i < 3; ++i)
+			heap.offer(i);
+		for (int i = 2; i < 10; ++i)
+			other.offer(i);
+
+		// when
+		try {
+			heap.meld(other);
+			fail("Meld of heaps sharing an element should be rejected");
+		} catch (IllegalStateException expected) {
+			// then
+		}
+		assertTrue("Heap should keep its elements", heap.contains(0) && !heap.contains(9));
+		assertTrue("Other heap should keep its elements", other.contains(9) && !other.contains(0));
+		heap.remove(1);
+		other.remove(5);
+		assertEquals("Wrong max", Integer.valueOf(2), heap.poll());
+		assertEquals("Wrong max", Integer.valueOf(0), heap.poll());
+		assertEquals("Wrong size", 7, other.size());
+		assertEquals("Wrong max", Integer.valueOf(9), other.poll());
+	}
+
+	@Test
+	public void shouldIncreaseKeyForReferenceValue() {
+		// given
+		ComparableClass[] refs = ComparableClass.fromInts(new Integer[] { 3, 2, 5, 9, 4 });
+		PairingMaxHeap<ComparableClass> heap = new PairingMaxHeap<>(ComparableClass.getComparator());
+		for (ComparableClass ref : refs)
+			heap.offer(ref);
+
+		// when
+		refs[1].setKey(10);
+		heap.changeKey(refs[1]);
+
+		// then
+		assertSame("Value is not at the top of heap", refs[1], heap.peek());
+		assertFalse("Heap should not be empty", heap.isEmpty());
+	}
+
+	private void assertPolledInOrder(PairingMaxHeap<ComparableClass> heap) {
+		int size = heap.size();
+		int previous = Integer.MAX_VALUE;
+		int polled = 0;
+		while (!heap.isEmpty()) {
+			int current = heap.poll().getKey();
+			assertTrue("Elements were not polled in order", current <= previous);
+			previous = current;
+			++polled;
+		}
+		assertEquals("Elements were lost", size, polled);
+	}
+
+	@Test
+	public void shouldIncreaseKeyWithoutLookingAtSons() {
+		// given
+		AtomicInteger comparisons = new AtomicInteger();
+		PairingMaxHeap<ComparableClass> heap = new PairingMaxHeap<>((first, second) -> {
+			comparisons.incrementAndGet();
+			return Integer.compare(first.getKey(), second.getKey());
+		});
+		ComparableClass parent = new ComparableClass(1000);
+		heap.offer(parent);
+		for (int i = 0; i < 1000; ++i)
+			heap.offer(new ComparableClass(i));
+		ComparableClass max = new ComparableClass(2000);
+		heap.offer(max);
+		comparisons.set(0);
+
+		// when
+		parent.setKey(3000);
+		heap.increaseKey(parent);
+
+		// then
+		assertEquals("Increasing key should take one comparison", 1, comparisons.get());
+		assertSame("Wrong max", parent, heap.poll());
+		assertSame("Wrong max", max, heap.poll());
+		int previous = Integer.MAX_VALUE;
+		while (!heap.isEmpty()) {
+			int current = heap.poll().getKey();
+			assertTrue("Elements were not polled in order", current <= previous);
+			previous = current;
+		}
+	}
+}
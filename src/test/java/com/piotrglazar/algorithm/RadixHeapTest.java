@@ -0,0 +1,112 @@
+package com.piotrglazar.algorithm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class RadixHeapTest {
+
+	private RadixHeap heap;
+
+	@Before
+	public void createHeap() {
+		heap = new RadixHeap(4);
+	}
+
+	@Test
+	public void shouldPollSmallestKeysFirst() {
+		// given
+		long[] keys = { 40, -7, 3, Long.MAX_VALUE, 3, Long.MIN_VALUE, 1000000 };
+		for (int id = 0; id < keys.length; ++id)
+			heap.add(id, keys[id]);
+
+		// when
+		long[] polled = new long[keys.length];
+		for (int i = 0; i < keys.length; ++i)
+			polled[i] = keys[heap.poll()];
+
+		// then
+		long[] sorted = keys.clone();
+		Arrays.sort(sorted);
+		assertTrue("Wrong key order " + Arrays.toString(polled), Arrays.equals(sorted, polled));
+		assertTrue("Heap should be empty", heap.isEmpty());
+	}
+
+	@Test
+	public void shouldChangeAndRemoveKeysAboveLastPolled() {
+		// given
+		for (int id = 0; id < 5; ++id)
+			heap.add(id, 10 * (id + 1));
+		heap.poll();
+
+		// when
+		heap.changeKey(4, 15);
+		heap.changeKey(1, 100);
+		boolean removed = heap.remove(2);
+
+		// then
+		assertTrue("Id should be removed", removed);
+		assertFalse("Removed id should not be present", heap.contains(2));
+		assertEquals("Wrong min key", 15, heap.peekKey());
+		assertEquals("Wrong min id", 4, heap.poll());
+		assertEquals("Wrong min id", 3, heap.poll());
+		assertEquals("Wrong min id", 1, heap.poll());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectKeyBelowLastPolled() {
+		// given
+		heap.add(0, 10);
+		heap.add(1, 20);
+		heap.poll();
+
+		// when
+		heap.changeKey(1, 5);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectIdWhichCannotBeIndexed() {
+		// when
+		heap.add(Integer.MAX_VALUE, 1);
+	}
+
+	@Test
+	public void shouldMatchLongMaxHeapOnMonotoneWorkload() {
+		// given
+		Random random = new Random(20);
+		LongMaxHeap reference = new LongMaxHeap();
+		int ids = 500;
+
+		for (int step = 0; step < 50000; ++step) {
+			// when
+			int id = random.nextInt(ids);
+			long key = heap.lastKey() == Long.MIN_VALUE ? random.nextInt(1 << 20)
+					: heap.lastKey() + random.nextInt(1 << random.nextInt(30));
+			int operation = random.nextInt(4);
+			if (operation < 2) {
+				heap.addOrChangeKey(id, key);
+				if (reference.contains(id))
+					reference.changeKey(id, -key);
+				else
+					reference.add(id, -key);
+			} else if (operation < 3) {
+				assertEquals("Remove results differ", reference.remove(id), heap.remove(id));
+			} else if (!heap.isEmpty()) {
+				long expected = -reference.peekKey();
+
+				// then
+				assertEquals("Wrong min key", expected, heap.peekKey());
+				int polled = heap.poll();
+				assertEquals("Polled id has wrong key", expected, -reference.key(polled));
+				reference.remove(polled);
+			}
+			assertEquals("Sizes differ", reference.size(), heap.size());
+		}
+	}
+}
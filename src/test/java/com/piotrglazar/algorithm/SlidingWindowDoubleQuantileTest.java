@@ -0,0 +1,89 @@
+package com.piotrglazar.algorithm;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SlidingWindowDoubleQuantileTest {
+
+	private static final double DELTA = 1e-9;
+
+	@Test
+	public void shouldInterpolateMedianOfEvenWindow() {
+		// given
+		SlidingWindowDoubleQuantile median = new SlidingWindowDoubleQuantile(4, 0.5);
+
+		// when
+		for (double sample : new double[] { 10, 2, 8, 4, 6 })
+			median.add(sample);
+
+		// then
+		assertEquals("Wrong lower median", 4, median.quantile(), DELTA);
+		assertEquals("Wrong median", 5, median.interpolatedQuantile(), DELTA);
+	}
+
+	@Test
+	public void shouldExpireSamplesByTimestamp() {
+		// given
+		SlidingWindowDoubleQuantile min = new SlidingWindowDoubleQuantile(10, 0);
+		min.add(1.5, 100);
+		min.add(7.5, 110);
+		min.add(3.5, 120);
+
+		// when
+		int expired = min.expireBefore(105);
+
+		// then
+		assertEquals("Wrong expired count", 1, expired);
+		assertEquals("Wrong minimum", 3.5, min.quantile(), DELTA);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectNaN() {
+		// when
+		new SlidingWindowDoubleQuantile(4, 0.5).add(Double.NaN);
+	}
+
+	@Test
+	public void shouldMatchSortedWindow() {
+		// given
+		Random random = new Random(24);
+		int windowSize = 50;
+		double quantile = 0.99;
+		SlidingWindowDoubleQuantile tracker = new SlidingWindowDoubleQuantile(windowSize, quantile);
+		ArrayDeque<Double> window = new ArrayDeque<>();
+
+		for (int step = 0; step < 5000; ++step) {
+			// when
+			if (random.nextInt(4) == 0 && !window.isEmpty()) {
+				assertEquals("Wrong expired sample", window.pollFirst(), tracker.expireOldest(), DELTA);
+			} else {
+				double sample = random.nextInt(8) == 0 ? 1.0 : random.nextGaussian();
+				if (window.size() == windowSize)
+					window.pollFirst();
+				window.addLast(sample);
+				tracker.add(sample);
+			}
+
+			// then
+			assertEquals("Sizes differ", window.size(), tracker.size());
+			if (!window.isEmpty()) {
+				double[] sorted = new double[window.size()];
+				int i = 0;
+				for (double sample : window)
+					sorted[i++] = sample;
+				Arrays.sort(sorted);
+				double rank = quantile * (sorted.length - 1);
+				int below = (int) rank;
+				double expected = below + 1 < sorted.length
+						? sorted[below] + (rank - below) * (sorted[below + 1] - sorted[below]) : sorted[below];
+				assertEquals("Wrong quantile", sorted[below], tracker.quantile(), DELTA);
+				assertEquals("Wrong interpolated quantile", expected, tracker.interpolatedQuantile(), DELTA);
+			}
+		}
+	}
+}
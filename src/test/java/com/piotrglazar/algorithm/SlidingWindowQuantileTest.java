@@ -0,0 +1,81 @@
+package com.piotrglazar.algorithm;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SlidingWindowQuantileTest {
+
+	@Test
+	public void shouldTrackMedianOfLastSamples() {
+		// given
+		SlidingWindowQuantile<Integer> median = new SlidingWindowQuantile<>(Comparator.<Integer> naturalOrder(), 3, 0.5);
+
+		// when
+		median.add(5);
+		median.add(1);
+		median.add(9);
+		median.add(7);
+
+		// then
+		assertEquals("Wrong size", 3, median.size());
+		assertEquals("Wrong median", Integer.valueOf(7), median.quantile());
+		assertEquals("Wrong expired sample", Integer.valueOf(1), median.expireOldest());
+		assertEquals("Wrong lower median", Integer.valueOf(7), median.quantile());
+	}
+
+	@Test
+	public void shouldExpireSamplesByTimestamp() {
+		// given
+		SlidingWindowQuantile<Integer> max = new SlidingWindowQuantile<>(Comparator.<Integer> naturalOrder(), 10, 1);
+		max.add(8, 100);
+		max.add(3, 110);
+		max.add(5, 120);
+
+		// when
+		int expired = max.expireBefore(115);
+
+		// then
+		assertEquals("Wrong expired count", 2, expired);
+		assertEquals("Wrong maximum", Integer.valueOf(5), max.quantile());
+	}
+
+	@Test
+	public void shouldMatchSortedWindowWithDuplicates() {
+		// given
+		Random random = new Random(24);
+		int windowSize = 37;
+		double quantile = 0.9;
+		SlidingWindowQuantile<Integer> tracker = new SlidingWindowQuantile<>(Comparator.<Integer> naturalOrder(),
+				windowSize, quantile);
+		ArrayDeque<Integer> window = new ArrayDeque<>();
+
+		for (int step = 0; step < 5000; ++step) {
+			// when
+			if (random.nextInt(4) == 0 && !window.isEmpty()) {
+				assertEquals("Wrong expired sample", window.pollFirst(), tracker.expireOldest());
+			} else {
+				int sample = random.nextInt(20);
+				if (window.size() == windowSize)
+					window.pollFirst();
+				window.addLast(sample);
+				tracker.add(sample);
+			}
+
+			// then
+			assertEquals("Sizes differ", window.size(), tracker.size());
+			if (!window.isEmpty()) {
+				List<Integer> sorted = new ArrayList<>(window);
+				Collections.sort(sorted);
+				assertEquals("Wrong quantile", sorted.get((int) (quantile * (sorted.size() - 1))), tracker.quantile());
+			}
+		}
+	}
+}
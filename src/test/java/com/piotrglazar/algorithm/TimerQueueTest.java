@@ -0,0 +1,124 @@
+package com.piotrglazar.algorithm;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.piotrglazar.algorithm.TimerQueue.Timer;
+
+public class TimerQueueTest {
+
+	@Test
+	public void shouldExpireTimersEarliestFirst() {
+		// given
+		TimerQueue<String> queue = new TimerQueue<>();
+		queue.schedule("c", 30);
+		queue.schedule("a", 10);
+		queue.schedule("b", 20);
+
+		// when
+		List<Timer<String>> expired = queue.expire(25);
+
+		// then
+		assertEquals("Wrong expired timers", asList("a", "b"), payloads(expired));
+		assertEquals("Wrong number of pending timers", 1, queue.size());
+		assertEquals("Wrong next deadline", 30, queue.nextDeadline());
+	}
+
+	@Test
+	public void shouldRescheduleAndCancelTimers() {
+		// given
+		TimerQueue<String> queue = new TimerQueue<>(comparator -> new DaryMaxHeap<>(4, comparator));
+		Timer<String> first = queue.schedule("first", 10);
+		Timer<String> second = queue.schedule("second", 20);
+		Timer<String> third = queue.schedule("third", 30);
+
+		// when
+		queue.reschedule(first, 40);
+		queue.reschedule(third, 5);
+		boolean cancelled = queue.cancel(second);
+
+		// then
+		assertTrue("Timer should be cancelled", cancelled);
+		assertFalse("Cancelled timer should not be scheduled", second.isScheduled());
+		assertFalse("Timer cannot be cancelled twice", queue.cancel(second));
+		assertEquals("Wrong expired timers", asList("third", "first"), payloads(queue.expire(100)));
+		assertTrue("Queue should be empty", queue.isEmpty());
+	}
+
+	@Test
+	public void shouldExpireInBatches() {
+		// given
+		TimerQueue<Integer> queue = TimerQueue.withTimingWheel(0, 1, 8, 2);
+		for (int i = 0; i < 10; ++i)
+			queue.schedule(i, i);
+
+		// when
+		List<Timer<Integer>> firstBatch = new ArrayList<>();
+		List<Timer<Integer>> secondBatch = new ArrayList<>();
+		int firstCount = queue.expire(9, 4, firstBatch);
+		int secondCount = queue.expire(100, 100, secondBatch);
+
+		// then
+		assertEquals("Wrong size of the first batch", 4, firstCount);
+		assertEquals("Wrong size of the second batch", 6, secondCount);
+		assertEquals("Timers should expire in tick order", asList(0, 1, 2, 3), payloads(firstBatch));
+	}
+
+	@Test
+	public void shouldExpireSameTimersWithAndWithoutTimingWheel() {
+		// given
+		Random random = new Random(7);
+		TimerQueue<Integer> heapQueue = new TimerQueue<>();
+		TimerQueue<Integer> wheelQueue = TimerQueue.withTimingWheel(0, 4, 4, 3);
+		List<Timer<Integer>> heapTimers = new ArrayList<>();
+		List<Timer<Integer>> wheelTimers = new ArrayList<>();
+		long now = 0;
+
+		for (int step = 0; step < 20000; ++step) {
+			// when
+			int operation = random.nextInt(10);
+			long deadline = now + random.nextInt(random.nextBoolean() ? 50 : 5000) - 10;
+			if (operation < 4 || heapTimers.isEmpty()) {
+				heapTimers.add(heapQueue.schedule(step, deadline));
+				wheelTimers.add(wheelQueue.schedule(step, deadline));
+			} else if (operation < 7) {
+				int i = random.nextInt(heapTimers.size());
+				if (heapTimers.get(i).isScheduled()) {
+					heapQueue.reschedule(heapTimers.get(i), deadline);
+					wheelQueue.reschedule(wheelTimers.get(i), deadline);
+				}
+			} else if (operation < 8) {
+				int i = random.nextInt(heapTimers.size());
+				assertEquals("Cancel results differ", heapQueue.cancel(heapTimers.get(i)),
+						wheelQueue.cancel(wheelTimers.get(i)));
+			} else {
+				now += random.nextInt(random.nextInt(20) == 0 ? 10000 : 20);
+				Set<Integer> fromHeap = new HashSet<>(payloads(heapQueue.expire(now)));
+				Set<Integer> fromWheel = new HashSet<>(payloads(wheelQueue.expire(now)));
+
+				// then
+				assertEquals("Expired timers differ at " + now, fromHeap, fromWheel);
+			}
+			assertEquals("Sizes differ", heapQueue.size(), wheelQueue.size());
+			if (!heapQueue.isEmpty())
+				assertEquals("Next deadlines differ", heapQueue.nextDeadline(), wheelQueue.nextDeadline());
+		}
+	}
+
+	private static <T> List<T> payloads(List<Timer<T>> timers) {
+		List<T> payloads = new ArrayList<>();
+		for (Timer<T> timer : timers)
+			payloads.add(timer.payload());
+		return payloads;
+	}
+}
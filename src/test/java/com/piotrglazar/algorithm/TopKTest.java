@@ -0,0 +1,94 @@
+package com.piotrglazar.algorithm;
+
+import static com.piotrglazar.algorithm.TestUtils.integerComparator;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class TopKTest {
+
+	@Test
+	public void shouldKeepGreatestElements() {
+		// given
+		List<Integer> ints = shuffledInts(1000);
+
+		// when
+		List<Integer> top = Heaps.topK(ints, 5, integerComparator);
+
+		// then
+		assertEquals("Wrong top elements", asList(999, 998, 997, 996, 995), top);
+	}
+
+	@Test
+	public void shouldRejectElementsBelowThreshold() {
+		// given
+		TopK<Integer> topK = new TopK<>(3, integerComparator);
+		for (Integer i : asList(5, 7, 9))
+			topK.offer(i);
+
+		// when
+		boolean retainedSmall = topK.offer(5);
+		boolean retainedGreat = topK.offer(8);
+
+		// then
+		assertFalse("Element equal to threshold should be rejected", retainedSmall);
+		assertTrue("Greater element should be retained", retainedGreat);
+		assertEquals("Wrong threshold", Integer.valueOf(7), topK.threshold());
+		assertEquals("Wrong top elements", asList(9, 8, 7), topK.toSortedList());
+	}
+
+	@Test
+	public void shouldKeepDuplicates() {
+		// given
+		List<Integer> ints = asList(4, 4, 1, 4, 2);
+
+		// when
+		List<Integer> top = Heaps.topK(ints, 4, integerComparator);
+
+		// then
+		assertEquals("Wrong top elements", asList(4, 4, 4, 2), top);
+	}
+
+	@Test
+	public void shouldReturnAllWhenFewerThanK() {
+		// given
+		List<Integer> ints = asList(3, 1, 2);
+
+		// when
+		List<Integer> top = Heaps.topK(ints, 10, integerComparator);
+
+		// then
+		assertEquals("Wrong top elements", asList(3, 2, 1), top);
+	}
+
+	@Test
+	public void shouldCollectParallelStream() {
+		// given
+		List<Integer> ints = shuffledInts(100000);
+
+		// when
+		List<Integer> top = ints.parallelStream().collect(Heaps.toTopK(10, integerComparator));
+
+		// then
+		List<Integer> expected = new ArrayList<>();
+		IntStream.range(0, 10).forEach(i -> expected.add(99999 - i));
+		assertEquals("Wrong top elements", expected, top);
+	}
+
+	private List<Integer> shuffledInts(int count) {
+		List<Integer> ints = new ArrayList<>();
+		for (int i = 0; i < count; ++i)
+			ints.add(i);
+		Collections.shuffle(ints, new Random(count));
+		return ints;
+	}
+}
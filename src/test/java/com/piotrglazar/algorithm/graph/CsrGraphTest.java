@@ -0,0 +1,73 @@
+package com.piotrglazar.algorithm.graph;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class CsrGraphTest {
+
+	@Test
+	public void shouldGroupEdgesBySource() {
+		// given
+		int[] sources = { 2, 0, 2, 1 };
+		int[] targets = { 0, 1, 1, 2 };
+		int[] weights = { 5, 1, 7, 3 };
+
+		// when
+		CsrGraph graph = CsrGraph.directed(4, sources, targets, weights);
+
+		// then
+		assertEquals("Wrong vertex count", 4, graph.vertexCount());
+		assertEquals("Wrong edge count", 4, graph.edgeCount());
+		assertEquals("Wrong out degree", 1, graph.outDegree(0));
+		assertEquals("Wrong out degree", 2, graph.outDegree(2));
+		assertEquals("Wrong out degree", 0, graph.outDegree(3));
+		assertEquals("Wrong edges", edges(new int[][] { { 0, 5 }, { 1, 7 } }), edgesOf(graph, 2));
+	}
+
+	@Test
+	public void shouldStoreUndirectedEdgesBothWays() {
+		// given
+		int[] sources = { 0, 1 };
+		int[] targets = { 1, 2 };
+		int[] weights = { 4, 6 };
+
+		// when
+		CsrGraph graph = CsrGraph.undirected(3, sources, targets, weights);
+
+		// then
+		assertEquals("Wrong edge count", 4, graph.edgeCount());
+		assertEquals("Wrong edges", edges(new int[][] { { 1, 4 } }), edgesOf(graph, 0));
+		assertEquals("Wrong edges", edges(new int[][] { { 0, 4 }, { 2, 6 } }), edgesOf(graph, 1));
+		assertEquals("Wrong edges", edges(new int[][] { { 1, 6 } }), edgesOf(graph, 2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectNegativeWeight() {
+		// when
+		CsrGraph.directed(2, new int[] { 0 }, new int[] { 1 }, new int[] { -1 });
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void shouldRejectVertexOutOfRange() {
+		// when
+		CsrGraph.directed(2, new int[] { 0 }, new int[] { 2 }, new int[] { 1 });
+	}
+
+	private static Set<String> edgesOf(CsrGraph graph, int vertex) {
+		Set<String> edges = new HashSet<>();
+		for (int e = graph.firstEdge(vertex); e < graph.endEdge(vertex); ++e)
+			edges.add(graph.target(e) + ":" + graph.weight(e));
+		return edges;
+	}
+
+	private static Set<String> edges(int[][] targetsAndWeights) {
+		Set<String> edges = new HashSet<>();
+		for (int[] edge : targetsAndWeights)
+			edges.add(edge[0] + ":" + edge[1]);
+		return edges;
+	}
+}
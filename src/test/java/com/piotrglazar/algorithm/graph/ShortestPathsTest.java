@@ -0,0 +1,133 @@
+package com.piotrglazar.algorithm.graph;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ShortestPathsTest {
+
+	private final Random random = new Random(23);
+
+	@Test
+	public void shouldFindShortestPath() {
+		// given
+		CsrGraph graph = CsrGraph.directed(5, new int[] { 0, 0, 1, 2, 1, 3 }, new int[] { 1, 2, 2, 3, 3, 0 },
+				new int[] { 4, 1, 2, 5, 10, 1 });
+
+		// when
+		ShortestPaths paths = ShortestPaths.dijkstra(graph, 0);
+
+		// then
+		assertEquals("Wrong distance", 6, paths.distance(3));
+		assertArrayEquals("Wrong path", new int[] { 0, 2, 3 }, paths.path(3));
+		assertArrayEquals("Wrong path to source", new int[] { 0 }, paths.path(0));
+		assertFalse("Vertex should be unreachable", paths.isReachable(4));
+		assertEquals("Unreachable vertex has no path", 0, paths.path(4).length);
+	}
+
+	@Test
+	public void shouldMatchBellmanFordOnRandomGraphs() {
+		for (int round = 0; round < 20; ++round) {
+			// given
+			int vertices = 50 + random.nextInt(50);
+			CsrGraph graph = randomGraph(vertices, vertices * 4, 100);
+
+			// when
+			ShortestPaths paths = ShortestPaths.dijkstra(graph, 0);
+
+			// then
+			long[] expected = bellmanFord(graph, 0);
+			for (int v = 0; v < vertices; ++v) {
+				assertEquals("Wrong distance of " + v, expected[v], paths.distance(v));
+				if (paths.isReachable(v))
+					assertEquals("Path length differs from distance", expected[v], pathWeight(graph, paths.path(v)));
+			}
+		}
+	}
+
+	@Test
+	public void shouldFindSameDistanceWithAStarOnGrid() {
+		// given
+		int side = 40;
+		CsrGraph graph = grid(side);
+		int target = side * side - 1;
+
+		// when
+		ShortestPaths paths = ShortestPaths.aStar(graph, 0, target,
+				v -> (side - 1 - v % side) + (side - 1 - v / side));
+
+		// then
+		ShortestPaths expected = ShortestPaths.dijkstra(graph, 0);
+		assertEquals("Wrong distance", expected.distance(target), paths.distance(target));
+		assertEquals("Path length differs from distance", paths.distance(target), pathWeight(graph, paths.path(target)));
+	}
+
+	private CsrGraph randomGraph(int vertices, int edges, int maxWeight) {
+		int[] sources = new int[edges];
+		int[] targets = new int[edges];
+		int[] weights = new int[edges];
+		for (int e = 0; e < edges; ++e) {
+			sources[e] = random.nextInt(vertices);
+			targets[e] = random.nextInt(vertices);
+			weights[e] = random.nextInt(maxWeight);
+		}
+		return CsrGraph.directed(vertices, sources, targets, weights);
+	}
+
+	private CsrGraph grid(int side) {
+		int edges = 2 * side * (side - 1);
+		int[] sources = new int[edges];
+		int[] targets = new int[edges];
+		int[] weights = new int[edges];
+		int e = 0;
+		for (int y = 0; y < side; ++y) {
+			for (int x = 0; x < side; ++x) {
+				int v = y * side + x;
+				if (x + 1 < side) {
+					sources[e] = v;
+					targets[e] = v + 1;
+					weights[e++] = 1 + random.nextInt(10);
+				}
+				if (y + 1 < side) {
+					sources[e] = v;
+					targets[e] = v + side;
+					weights[e++] = 1 + random.nextInt(10);
+				}
+			}
+		}
+		return CsrGraph.undirected(side * side, sources, targets, weights);
+	}
+
+	private static long[] bellmanFord(CsrGraph graph, int source) {
+		long[] distances = new long[graph.vertexCount()];
+		Arrays.fill(distances, ShortestPaths.UNREACHABLE);
+		distances[source] = 0;
+		for (int round = 1; round < graph.vertexCount(); ++round) {
+			for (int u = 0; u < graph.vertexCount(); ++u) {
+				if (distances[u] == ShortestPaths.UNREACHABLE)
+					continue;
+				for (int e = graph.firstEdge(u); e < graph.endEdge(u); ++e)
+					distances[graph.target(e)] = Math.min(distances[graph.target(e)], distances[u] + graph.weight(e));
+			}
+		}
+		return distances;
+	}
+
+	private static long pathWeight(CsrGraph graph, int[] path) {
+		long weight = 0;
+		for (int i = 0; i + 1 < path.length; ++i) {
+			long lightest = Long.MAX_VALUE;
+			for (int e = graph.firstEdge(path[i]); e < graph.endEdge(path[i]); ++e) {
+				if (graph.target(e) == path[i + 1])
+					lightest = Math.min(lightest, graph.weight(e));
+			}
+			weight += lightest;
+		}
+		return weight;
+	}
+}
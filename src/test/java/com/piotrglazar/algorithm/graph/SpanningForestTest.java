@@ -0,0 +1,85 @@
+package com.piotrglazar.algorithm.graph;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SpanningForestTest {
+
+	private final Random random = new Random(23);
+
+	@Test
+	public void shouldSpanEveryComponent() {
+		// given
+		CsrGraph graph = CsrGraph.undirected(6, new int[] { 0, 1, 0, 3, 4 }, new int[] { 1, 2, 2, 4, 5 },
+				new int[] { 3, 1, 2, 7, 2 });
+
+		// when
+		SpanningForest forest = SpanningForest.prim(graph);
+
+		// then
+		assertEquals("Wrong total weight", 3 + 9, forest.totalWeight());
+		assertEquals("Wrong tree count", 2, forest.treeCount());
+		assertEquals("Wrong edge count", 4, forest.edgeCount());
+		assertEquals("Root has no parent", -1, forest.parent(0));
+		assertEquals("Wrong parent", 2, forest.parent(1));
+		assertEquals("Wrong parent edge weight", 1, forest.parentEdgeWeight(1));
+	}
+
+	@Test
+	public void shouldMatchKruskalOnRandomGraphs() {
+		for (int round = 0; round < 20; ++round) {
+			// given
+			int vertices = 50 + random.nextInt(200);
+			int edges = vertices * 2;
+			int[] sources = new int[edges];
+			int[] targets = new int[edges];
+			int[] weights = new int[edges];
+			for (int e = 0; e < edges; ++e) {
+				sources[e] = random.nextInt(vertices);
+				targets[e] = random.nextInt(vertices);
+				weights[e] = random.nextInt(1000);
+			}
+
+			// when
+			SpanningForest forest = SpanningForest.prim(CsrGraph.undirected(vertices, sources, targets, weights));
+
+			// then
+			assertEquals("Wrong total weight", kruskal(vertices, sources, targets, weights), forest.totalWeight());
+			long parentWeights = 0;
+			for (int v = 0; v < vertices; ++v)
+				parentWeights += forest.parentEdgeWeight(v);
+			assertEquals("Parent edges differ from total weight", forest.totalWeight(), parentWeights);
+		}
+	}
+
+	private static long kruskal(int vertices, int[] sources, int[] targets, int[] weights) {
+		Integer[] order = new Integer[sources.length];
+		for (int e = 0; e < order.length; ++e)
+			order[e] = e;
+		Arrays.sort(order, Comparator.comparingInt(e -> weights[e]));
+		int[] components = new int[vertices];
+		for (int v = 0; v < vertices; ++v)
+			components[v] = v;
+		long total = 0;
+		for (int e : order) {
+			int first = find(components, sources[e]);
+			int second = find(components, targets[e]);
+			if (first != second) {
+				components[first] = second;
+				total += weights[e];
+			}
+		}
+		return total;
+	}
+
+	private static int find(int[] components, int v) {
+		while (components[v] != v)
+			v = components[v] = components[components[v]];
+		return v;
+	}
+}